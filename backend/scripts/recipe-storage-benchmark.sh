@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# レシピの保存形式（正規化・ドキュメント）のベンチマーク
+#
+# 作業用のスキーマ（recipe_storage_bench）に両方の形式のテーブルと初期データを作成し、pgbenchで
+# 保存・IDでの取得・タグ／材料での検索・材料の変更のレイテンシとスループットを計測します。
+# 最後に、変更後のテーブルサイズ（インデックスを含む）と不要な行（dead tuple）の数を表示します。
+# アプリケーションのテーブルには触れません。終了後、作業用のスキーマは削除します。
+#
+# 使い方（backendディレクトリで実行。psqlとpgbenchが必要です）:
+#   PGHOST=localhost PGUSER=postgres PGDATABASE=recipe_db scripts/recipe-storage-benchmark.sh [初期件数] [秒数]
+#
+# 環境変数:
+#   PG*                  接続先（libpqの環境変数）
+#   BENCHMARK_CLIENTS    同時接続数（既定: 4）
+#   BENCHMARK_PROTOCOL   pgbenchのクエリプロトコル（simple／extended／prepared、既定: simple）
+#   BENCHMARK_KEEP       1の場合、終了後も作業用のスキーマを残す
+set -euo pipefail
+
+ROWS="${1:-100000}"
+DURATION="${2:-30}"
+CLIENTS="${BENCHMARK_CLIENTS:-4}"
+PROTOCOL="${BENCHMARK_PROTOCOL:-simple}"
+DIR="$(cd "$(dirname "$0")/recipe-storage/pgbench" && pwd)"
+
+cleanup() {
+  if [[ "${BENCHMARK_KEEP:-0}" != "1" ]]; then
+    psql -q -X -c "DROP SCHEMA IF EXISTS recipe_storage_bench CASCADE" >/dev/null
+  fi
+}
+trap cleanup EXIT
+
+# pgbenchを実行し、平均レイテンシ（ms）とスループット（tps）を1行で表示する
+run() {
+  local name="$1" script="$2" output latency tps
+  output="$(pgbench -n -M "$PROTOCOL" -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -D rows="$ROWS" \
+    -f "$DIR/$script" 2>&1)" || { echo "$output" >&2; return 1; }
+  latency="$(sed -n 's/^latency average = \([0-9.]*\) ms$/\1/p' <<<"$output")"
+  tps="$(sed -n 's/^tps = \([0-9.]*\) .*/\1/p' <<<"$output")"
+  printf '%-28s 平均 %8s ms  %10s tps\n' "$name" "$latency" "$tps"
+}
+
+# 各形式のテーブルの合計サイズと不要な行の数を表示する
+report_size() {
+  psql -q -X -A -F '|' -t <<'SQL' | while IFS='|' read -r layout size dead; do
+SELECT CASE WHEN relname = 'recipe_documents' THEN 'ドキュメント' ELSE '正規化' END,
+       pg_size_pretty(SUM(pg_total_relation_size(relid))), SUM(n_dead_tup)
+FROM pg_stat_user_tables
+WHERE schemaname = 'recipe_storage_bench'
+GROUP BY 1 ORDER BY 1 DESC;
+SQL
+    if [[ -n "$layout" ]]; then
+      printf '  %-14s サイズ %10s  不要な行 %10s\n' "$layout" "$size" "$dead"
+    fi
+  done
+}
+
+echo "初期データを作成しています（${ROWS}件）..."
+psql -q -X -v ON_ERROR_STOP=1 -v rows="$ROWS" -f "$DIR/setup.sql" >/dev/null
+
+echo "初期データのサイズ:"
+report_size
+
+echo "計測（${DURATION}秒ずつ、同時接続数 ${CLIENTS}）:"
+run "保存（正規化）" write-relational.sql
+run "保存（ドキュメント）" write-document.sql
+run "IDで取得（正規化）" read-relational.sql
+run "IDで取得（ドキュメント）" read-document.sql
+run "タグで検索（正規化）" tag-relational.sql
+run "タグで検索（ドキュメント）" tag-document.sql
+run "材料で検索（正規化）" ingredient-relational.sql
+run "材料で検索（ドキュメント）" ingredient-document.sql
+run "材料の変更（正規化）" update-relational.sql
+run "材料の変更（ドキュメント）" update-document.sql
+
+# 統計情報の反映を待つ
+sleep 1
+echo "変更後のサイズ（VACUUMなし）:"
+report_size
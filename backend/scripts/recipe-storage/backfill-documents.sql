@@ -0,0 +1,30 @@
+-- 正規化したテーブル（recipes など）のレシピを recipe_documents に移行する
+--
+-- 保存形式を document に切り替えた後（新しいレシピが recipe_documents に保存されるようになった後）に実行します。
+-- 移行済みのID・内容の指紋の行は上書きしないため、何度実行しても結果は同じです。
+--   psql "$DATABASE_URL" -f scripts/recipe-storage/backfill-documents.sql
+
+INSERT INTO recipe_documents
+    (id, title, description, cooking_time, difficulty, serving_size, image_url, content_hash, body)
+SELECT r.id, r.title, r.description, r.cooking_time, r.difficulty, r.serving_size, r.image_url, r.content_hash,
+       jsonb_build_object(
+           -- コレクションのテーブルには順序の列がないため、保存された（物理的な）順序で並べる
+           'ingredients', COALESCE((
+               SELECT jsonb_agg(jsonb_build_object('name', i.name, 'quantity', i.quantity,
+                                                   'unit', i.unit, 'note', i.note) ORDER BY i.ctid)
+               FROM recipe_ingredients i WHERE i.recipe_id = r.id), '[]'::jsonb),
+           'instructions', COALESCE((
+               SELECT jsonb_agg(s.instruction_step ORDER BY s.ctid)
+               FROM recipe_instructions s WHERE s.recipe_id = r.id), '[]'::jsonb),
+           'tags', COALESCE((
+               SELECT jsonb_agg(t.tag ORDER BY t.ctid)
+               FROM recipe_tags t WHERE t.recipe_id = r.id), '[]'::jsonb),
+           'nutritionInfo', CASE
+               WHEN r.calories IS NULL AND r.protein IS NULL AND r.carbs IS NULL AND r.fat IS NULL THEN 'null'::jsonb
+               ELSE jsonb_build_object('calories', r.calories, 'protein', r.protein, 'carbs', r.carbs, 'fat', r.fat)
+           END)
+FROM recipes r
+ORDER BY r.id
+ON CONFLICT DO NOTHING;
+
+ANALYZE recipe_documents;
@@ -0,0 +1,6 @@
+-- ドキュメント: 材料を含むレシピのIDを20件取得（GINインデックスでの包含検索）
+\set ingredient random(0, 99)
+SELECT id
+FROM recipe_storage_bench.recipe_documents
+WHERE body @> jsonb_build_object('ingredients', jsonb_build_array(jsonb_build_object('name', '食材' || :ingredient)))
+ORDER BY id LIMIT 20;
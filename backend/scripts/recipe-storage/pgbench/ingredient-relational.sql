@@ -0,0 +1,6 @@
+-- 正規化: 材料を含むレシピのIDを20件取得
+\set ingredient random(0, 99)
+SELECT DISTINCT i.recipe_id
+FROM recipe_storage_bench.recipe_ingredients i
+WHERE i.name = '食材' || :ingredient
+ORDER BY i.recipe_id LIMIT 20;
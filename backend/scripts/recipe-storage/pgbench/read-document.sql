@@ -0,0 +1,3 @@
+-- ドキュメント: IDで1件取得（1回のSELECT）
+\set id random(1, :rows)
+SELECT * FROM recipe_storage_bench.recipe_documents WHERE id = :id;
@@ -0,0 +1,6 @@
+-- 正規化: IDで1件取得（本体と3つのコレクションで4回のSELECT。アプリケーションの遅延読み込みと同じ）
+\set id random(1, :rows)
+SELECT * FROM recipe_storage_bench.recipes WHERE id = :id;
+SELECT name, quantity, unit, note FROM recipe_storage_bench.recipe_ingredients WHERE recipe_id = :id;
+SELECT instruction_step FROM recipe_storage_bench.recipe_instructions WHERE recipe_id = :id;
+SELECT tag FROM recipe_storage_bench.recipe_tags WHERE recipe_id = :id;
@@ -0,0 +1,76 @@
+-- ベンチマーク用のスキーマ（recipe_storage_bench）に、両方の保存形式のテーブルと初期データを作成する
+-- psql -v rows=件数 で初期データの件数を指定する
+
+DROP SCHEMA IF EXISTS recipe_storage_bench CASCADE;
+CREATE SCHEMA recipe_storage_bench;
+SET search_path TO recipe_storage_bench;
+
+CREATE SEQUENCE recipe_seq;
+
+-- 正規化（アプリケーションの recipes・recipe_ingredients・recipe_instructions・recipe_tags と同じ構成）
+CREATE TABLE recipes (
+    id BIGINT PRIMARY KEY, title VARCHAR(255), description VARCHAR(255), cooking_time INTEGER,
+    difficulty VARCHAR(255), serving_size INTEGER, calories INTEGER, protein VARCHAR(255),
+    carbs VARCHAR(255), fat VARCHAR(255), image_url VARCHAR(255), content_hash VARCHAR(64)
+);
+CREATE TABLE recipe_ingredients (recipe_id BIGINT NOT NULL REFERENCES recipes (id), name VARCHAR(255),
+    quantity VARCHAR(255), unit VARCHAR(255), note VARCHAR(255));
+CREATE TABLE recipe_instructions (recipe_id BIGINT NOT NULL REFERENCES recipes (id), instruction_step VARCHAR(255));
+CREATE TABLE recipe_tags (recipe_id BIGINT NOT NULL REFERENCES recipes (id), tag VARCHAR(255));
+CREATE INDEX ON recipes (title);
+CREATE INDEX ON recipes (difficulty, cooking_time, id);
+CREATE UNIQUE INDEX ON recipes (content_hash);
+CREATE INDEX ON recipe_ingredients (name);
+CREATE INDEX ON recipe_tags (tag, recipe_id);
+CREATE INDEX ON recipe_ingredients (recipe_id);
+CREATE INDEX ON recipe_instructions (recipe_id);
+CREATE INDEX ON recipe_tags (recipe_id);
+
+-- ドキュメント（アプリケーションの recipe_documents と同じ構成）
+CREATE TABLE recipe_documents (
+    id BIGINT PRIMARY KEY, title VARCHAR(255), description VARCHAR(255), cooking_time INTEGER,
+    difficulty VARCHAR(255), serving_size INTEGER, image_url VARCHAR(255), content_hash VARCHAR(64),
+    body JSONB NOT NULL
+);
+CREATE INDEX ON recipe_documents (title);
+CREATE INDEX ON recipe_documents (difficulty, cooking_time, id);
+CREATE UNIQUE INDEX ON recipe_documents (content_hash);
+CREATE INDEX ON recipe_documents USING GIN (body jsonb_path_ops);
+
+-- 不要な行（更新・削除で残る古い行）の量を比べるため、自動VACUUMを止める
+ALTER TABLE recipes SET (autovacuum_enabled = false);
+ALTER TABLE recipe_ingredients SET (autovacuum_enabled = false);
+ALTER TABLE recipe_instructions SET (autovacuum_enabled = false);
+ALTER TABLE recipe_tags SET (autovacuum_enabled = false);
+ALTER TABLE recipe_documents SET (autovacuum_enabled = false);
+
+-- 初期データ（1件あたり材料8・手順5・タグ3。材料は100種類、タグは20種類から選ぶ）
+INSERT INTO recipes
+SELECT g, 'レシピ' || g, 'ベンチマーク用のレシピです', 10 + g % 50,
+       (ARRAY['EASY', 'MEDIUM', 'HARD'])[1 + g % 3], 2, 300 + g % 400, '20g', '50g', '10g', NULL, md5(g::text)
+FROM generate_series(1, :rows) g;
+INSERT INTO recipe_ingredients
+SELECT r.id, '食材' || ((r.id * 7 + n * 13) % 100), n * 10 || '', 'g', NULL
+FROM recipes r, generate_series(1, 8) n;
+INSERT INTO recipe_instructions
+SELECT r.id, '手順' || n || ': 材料を切って加熱します'
+FROM recipes r, generate_series(1, 5) n;
+INSERT INTO recipe_tags
+SELECT r.id, 'タグ' || ((r.id + n * 7) % 20)
+FROM recipes r, generate_series(1, 3) n;
+
+INSERT INTO recipe_documents
+SELECT r.id, r.title, r.description, r.cooking_time, r.difficulty, r.serving_size, r.image_url, r.content_hash,
+       jsonb_build_object(
+           'ingredients', (SELECT jsonb_agg(jsonb_build_object('name', i.name, 'quantity', i.quantity,
+                                                               'unit', i.unit, 'note', i.note) ORDER BY i.ctid)
+                           FROM recipe_ingredients i WHERE i.recipe_id = r.id),
+           'instructions', (SELECT jsonb_agg(s.instruction_step ORDER BY s.ctid)
+                            FROM recipe_instructions s WHERE s.recipe_id = r.id),
+           'tags', (SELECT jsonb_agg(t.tag ORDER BY t.ctid) FROM recipe_tags t WHERE t.recipe_id = r.id),
+           'nutritionInfo', jsonb_build_object('calories', r.calories, 'protein', r.protein,
+                                               'carbs', r.carbs, 'fat', r.fat))
+FROM recipes r;
+
+SELECT setval('recipe_seq', :rows);
+VACUUM ANALYZE recipes, recipe_ingredients, recipe_instructions, recipe_tags, recipe_documents;
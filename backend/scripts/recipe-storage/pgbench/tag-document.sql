@@ -0,0 +1,6 @@
+-- ドキュメント: タグでレシピの概要を20件取得（GINインデックスでの包含検索）
+\set tag random(0, 19)
+SELECT id, title, cooking_time, difficulty
+FROM recipe_storage_bench.recipe_documents
+WHERE body @> jsonb_build_object('tags', jsonb_build_array('タグ' || :tag)) AND id > 0
+ORDER BY id LIMIT 20;
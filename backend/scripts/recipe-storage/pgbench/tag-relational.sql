@@ -0,0 +1,6 @@
+-- 正規化: タグでレシピの概要を20件取得（recipe_tags と結合）
+\set tag random(0, 19)
+SELECT r.id, r.title, r.cooking_time, r.difficulty
+FROM recipe_storage_bench.recipes r JOIN recipe_storage_bench.recipe_tags t ON t.recipe_id = r.id
+WHERE t.tag = 'タグ' || :tag AND r.id > 0
+ORDER BY r.id LIMIT 20;
@@ -0,0 +1,8 @@
+-- ドキュメント: 材料の変更（行全体を書き換える）
+\set id random(1, :rows)
+UPDATE recipe_storage_bench.recipe_documents
+SET body = jsonb_set(body, '{ingredients}',
+        (SELECT jsonb_agg(jsonb_build_object('name', '食材' || ((:id * 7 + n * 13) % 100),
+                                             'quantity', n * 20 || '', 'unit', 'g', 'note', NULL))
+         FROM generate_series(1, 8) n))
+WHERE id = :id;
@@ -0,0 +1,7 @@
+-- 正規化: 材料の変更（Hibernateは順序列のない要素コレクションを削除して入れ直す）
+\set id random(1, :rows)
+BEGIN;
+DELETE FROM recipe_storage_bench.recipe_ingredients WHERE recipe_id = :id;
+INSERT INTO recipe_storage_bench.recipe_ingredients
+SELECT :id, '食材' || ((:id * 7 + n * 13) % 100), n * 20 || '', 'g', NULL FROM generate_series(1, 8) n;
+END;
@@ -0,0 +1,11 @@
+-- ドキュメント: 1件の保存（1回のINSERT）
+SELECT nextval('recipe_storage_bench.recipe_seq') AS id \gset
+INSERT INTO recipe_storage_bench.recipe_documents
+VALUES (:id, 'レシピ' || :id, 'ベンチマーク用のレシピです', 30, 'EASY', 2, NULL, md5(:id::text),
+        jsonb_build_object(
+            'ingredients', (SELECT jsonb_agg(jsonb_build_object('name', '食材' || ((:id * 7 + n * 13) % 100),
+                                                                'quantity', n * 10 || '', 'unit', 'g', 'note', NULL))
+                            FROM generate_series(1, 8) n),
+            'instructions', (SELECT jsonb_agg('手順' || n || ': 材料を切って加熱します') FROM generate_series(1, 5) n),
+            'tags', (SELECT jsonb_agg('タグ' || ((:id + n * 7) % 20)) FROM generate_series(1, 3) n),
+            'nutritionInfo', jsonb_build_object('calories', 450, 'protein', '20g', 'carbs', '50g', 'fat', '10g')));
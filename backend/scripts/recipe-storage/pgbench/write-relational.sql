@@ -0,0 +1,12 @@
+-- 正規化: 1件の保存（本体・材料8・手順5・タグ3を4回のINSERTで保存）
+SELECT nextval('recipe_storage_bench.recipe_seq') AS id \gset
+BEGIN;
+INSERT INTO recipe_storage_bench.recipes
+VALUES (:id, 'レシピ' || :id, 'ベンチマーク用のレシピです', 30, 'EASY', 2, 450, '20g', '50g', '10g', NULL, md5(:id::text));
+INSERT INTO recipe_storage_bench.recipe_ingredients
+SELECT :id, '食材' || ((:id * 7 + n * 13) % 100), n * 10 || '', 'g', NULL FROM generate_series(1, 8) n;
+INSERT INTO recipe_storage_bench.recipe_instructions
+SELECT :id, '手順' || n || ': 材料を切って加熱します' FROM generate_series(1, 5) n;
+INSERT INTO recipe_storage_bench.recipe_tags
+SELECT :id, 'タグ' || ((:id + n * 7) % 20) FROM generate_series(1, 3) n;
+END;
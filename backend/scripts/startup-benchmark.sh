@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# 起動時間のベンチマーク
+#
+# プロセスの起動から、最初のリクエストが成功する（HTTP 200）までの時間を計測します。
+# 起動方法（通常・AOT・CDS・AOT+CDS）ごとに指定回数起動し、各回の時間と中央値を表示します。
+#
+# 使い方（backendディレクトリで実行。DBが起動している必要があります）:
+#   ./gradlew cdsArchive
+#   scripts/startup-benchmark.sh [回数]
+#
+# 環境変数:
+#   SPRING_PROFILES_ACTIVE  起動時のプロファイル（既定: prod）
+#   BENCHMARK_PORT          起動するポート（既定: 18080）
+#   BENCHMARK_PATH          成功を確認するリクエスト（既定: DBを参照する一覧API。必須のパラメータを含めること）
+#   BENCHMARK_TIMEOUT       1回あたりの最大待ち時間（秒、既定: 120）
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${BENCHMARK_PORT:-18080}"
+REQUEST_PATH="${BENCHMARK_PATH:-/api/v1/recipes/browse?difficulty=EASY&size=1}"
+TIMEOUT="${BENCHMARK_TIMEOUT:-120}"
+PROFILES="${SPRING_PROFILES_ACTIVE:-prod}"
+CDS_DIR="build/cds"
+
+JAR="$(ls "$CDS_DIR"/*.jar 2>/dev/null | head -n 1 || true)"
+if [[ -z "$JAR" || ! -f "$CDS_DIR/app.jsa" ]]; then
+  echo "展開済みのjarとCDSアーカイブがありません。先に ./gradlew cdsArchive を実行してください" >&2
+  exit 1
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+# 1回起動し、最初のリクエストが成功するまでのミリ秒を出力する
+measure() {
+  local start end pid
+  start="$(now_ms)"
+  # shellcheck disable=SC2068
+  java $@ -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$PROFILES" >/dev/null 2>&1 &
+  pid=$!
+
+  local deadline=$((start + TIMEOUT * 1000))
+  until curl -sf -o /dev/null "http://localhost:${PORT}${REQUEST_PATH}"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "アプリケーションが異常終了しました" >&2
+      return 1
+    fi
+    if (( $(now_ms) > deadline )); then
+      kill "$pid" 2>/dev/null || true
+      echo "タイムアウトしました（${TIMEOUT}秒）" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+  end="$(now_ms)"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo $((end - start))
+}
+
+run_mode() {
+  local name="$1"
+  shift
+  local times=()
+  for ((i = 1; i <= RUNS; i++)); do
+    times+=("$(measure "$@")")
+  done
+  local median
+  median="$(printf '%s\n' "${times[@]}" | sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }')"
+  printf '%-10s 中央値 %6d ms  （%s）\n' "$name" "$median" "${times[*]}"
+}
+
+echo "初回リクエスト成功までの時間: ${REQUEST_PATH}（${RUNS}回、プロファイル: ${PROFILES}）"
+run_mode "通常"
+run_mode "AOT" -Dspring.aot.enabled=true
+run_mode "CDS" -XX:SharedArchiveFile="$CDS_DIR/app.jsa"
+run_mode "AOT+CDS" -XX:SharedArchiveFile="$CDS_DIR/app.jsa" -Dspring.aot.enabled=true
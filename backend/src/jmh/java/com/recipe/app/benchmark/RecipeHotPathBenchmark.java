@@ -0,0 +1,118 @@
+package com.recipe.app.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.service.GenerationResult;
+import com.recipe.app.service.RecipeJsonParser;
+import com.recipe.app.service.RecipeMapper;
+import com.recipe.app.service.RecipePromptBuilder;
+import com.recipe.app.service.RecipePromptBuilder.RecipePrompt;
+
+/**
+ * レシピ提案処理のうち、CPUとメモリを使う部分のベンチマーク
+ *
+ * <p>Bedrockの応答形式に合わせて作成した合成データ（3レシピ・各12〜18食材）を入力に、
+ * プロンプト作成・応答のパース・レスポンスへの変換をそれぞれ計測します。
+ * 実際のモデル応答を記録したものではないため、トークン数などの値は実測値ではありません。
+ * 実行方法と結果の比較方法は {@code docs/operations.md} を参照してください。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class RecipeHotPathBenchmark {
+
+    private static final String PAYLOAD = "/bedrock/suggest-3-recipes-synthetic.json";
+
+    private final RecipePromptBuilder compactPromptBuilder = new RecipePromptBuilder(true, 8, 15, 300, 40, 35, 4000);
+    private final RecipePromptBuilder verbosePromptBuilder = new RecipePromptBuilder(false, 8, 15, 300, 40, 35, 4000);
+    private final RecipeJsonParser parser = new RecipeJsonParser();
+    private final RecipeMapper mapper = new RecipeMapper();
+
+    private List<String> ingredients;
+    private Map<String, Object> preferences;
+    private byte[] responseBody;
+    private String generatedText;
+    private List<Recipe> recipes;
+
+    @Setup
+    public void setUp() throws IOException {
+        ingredients = List.of("鶏もも肉", "じゃがいも", "にんじん", "玉ねぎ", "しいたけ", "さやいんげん",
+                "ごぼう", "れんこん", "しょうが", "長ねぎ", "こんにゃく", "白いりごま");
+        preferences = Map.of(
+                "difficulty", "EASY",
+                "cookingTime", 30,
+                "servingSize", 2,
+                "cuisineType", "JAPANESE");
+
+        try (InputStream in = RecipeHotPathBenchmark.class.getResourceAsStream(PAYLOAD)) {
+            if (in == null) {
+                throw new IllegalStateException("ベンチマーク用の応答ファイルが見つかりません: " + PAYLOAD);
+            }
+            responseBody = in.readAllBytes();
+        }
+        generatedText = parser.readGeneratedText(responseBody).text();
+
+        // 変換対象は保存済みのレシピと同じくIDを持たせておく
+        recipes = parser.parseRecipes(generatedText);
+        for (int i = 0; i < recipes.size(); i++) {
+            recipes.get(i).setId((long) i + 1);
+        }
+    }
+
+    @Benchmark
+    public RecipePrompt buildCompactPrompt() {
+        return compactPromptBuilder.build(ingredients, preferences);
+    }
+
+    @Benchmark
+    public RecipePrompt buildVerbosePrompt() {
+        return verbosePromptBuilder.build(ingredients, preferences);
+    }
+
+    @Benchmark
+    public GenerationResult readGeneratedText() throws IOException {
+        return parser.readGeneratedText(responseBody);
+    }
+
+    @Benchmark
+    public List<Recipe> parseRecipes() throws IOException {
+        return parser.parseRecipes(generatedText);
+    }
+
+    /**
+     * 応答ボディの受信後からレシピを組み立てるまでの処理全体
+     */
+    @Benchmark
+    public List<Recipe> parseResponse() throws IOException {
+        return parser.parseRecipes(parser.readGeneratedText(responseBody).text());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> convertToMap() {
+        List<Map<String, Object>> maps = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            maps.add(mapper.convertToMap(recipe));
+        }
+        return maps;
+    }
+}
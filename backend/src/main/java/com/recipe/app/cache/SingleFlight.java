@@ -0,0 +1,90 @@
+package com.recipe.app.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 同じキーに対する同時実行中の処理を1つにまとめる仕組み
+ *
+ * <p>最初の呼び出し元（リーダー）が処理を開始し、処理中に同じキーで呼び出された
+ * 呼び出し元はその結果を待ち合わせます。呼び出し元はそれぞれ独自のタイムアウトを持ち、
+ * タイムアウトやキャンセルで待機をやめても処理自体や他の呼び出し元には影響しません。</p>
+ *
+ * @param <K> キーの型
+ * @param <V> 結果の型
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * 処理を開始するか、実行中の同じキーの処理結果を待ちます
+     *
+     * <p>返されるFutureは呼び出し元ごとに独立しており、タイムアウトやキャンセルは
+     * その呼び出し元にのみ影響します。</p>
+     *
+     * @param key     処理をまとめるためのキー
+     * @param loader  結果を非同期に生成する処理（リーダーの場合のみ呼び出されます）
+     * @param timeout この呼び出し元の最大待ち時間
+     * @return 処理結果で完了するFuture。タイムアウトした場合は {@link java.util.concurrent.TimeoutException} で完了します
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> loader, Duration timeout) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return awaitCopy(existing, timeout);
+        }
+
+        executions.increment();
+        CompletableFuture<V> result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException | Error e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        // 完了したら受付を終了し、待機中の呼び出し元に結果を伝える
+        result.whenComplete((value, error) -> {
+            inFlight.remove(key, created);
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else {
+                created.complete(value);
+            }
+        });
+        return awaitCopy(created, timeout);
+    }
+
+    // copy()したFutureへのタイムアウト・キャンセルは共有のFutureに伝播しない
+    private CompletableFuture<V> awaitCopy(CompletableFuture<V> shared, Duration timeout) {
+        return shared.copy().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 現在実行中のキーの数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 実際に処理を実行した回数
+     */
+    public long executionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * 実行中の処理にまとめられた呼び出しの回数
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+}
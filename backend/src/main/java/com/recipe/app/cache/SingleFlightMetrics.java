@@ -0,0 +1,41 @@
+package com.recipe.app.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link SingleFlight} の実行・合流の回数と実行中のキーの数をMicrometerに登録するクラス
+ *
+ * <ul>
+ *   <li>{@code singleflight.calls}（name, result=executed/coalesced）: 処理を実行した回数と、実行中の処理に合流した回数</li>
+ *   <li>{@code singleflight.in.flight}（name）: 現在実行中のキーの数</li>
+ * </ul>
+ */
+public final class SingleFlightMetrics {
+
+    private SingleFlightMetrics() {
+    }
+
+    /**
+     * 処理をまとめる仕組みのメトリクスを登録します
+     *
+     * @param meterRegistry 登録先
+     * @param name          {@code name} タグの値
+     * @param singleFlight  対象
+     */
+    public static void bind(MeterRegistry meterRegistry, String name, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("singleflight.calls", singleFlight, SingleFlight::executionCount)
+                .description("処理を実行した回数")
+                .tags("name", name, "result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("singleflight.calls", singleFlight, SingleFlight::coalescedCount)
+                .description("実行中の同じキーの処理に合流した回数")
+                .tags("name", name, "result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.in.flight", singleFlight, SingleFlight::inFlightCount)
+                .description("現在実行中のキーの数")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+}
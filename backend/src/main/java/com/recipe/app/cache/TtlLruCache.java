@@ -0,0 +1,147 @@
+package com.recipe.app.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 件数上限とTTLを持つLRUキャッシュ
+ *
+ * <p>上限を超えた場合は最も古く参照されたエントリから破棄し、TTLを過ぎたエントリは
+ * 参照時に破棄します。ヒット・ミス・破棄の件数を保持します。</p>
+ *
+ * @param <K> キーの型
+ * @param <V> 値の型
+ */
+public class TtlLruCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries 最大エントリ数
+     * @param ttlNanos   有効期間（ナノ秒）。0以下の場合は期限なし
+     */
+    public TtlLruCache(int maxEntries, long ttlNanos) {
+        this(maxEntries, ttlNanos, System::nanoTime);
+    }
+
+    TtlLruCache(int maxEntries, long ttlNanos, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries は1以上を指定してください: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlLruCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * キャッシュから値を取得します
+     *
+     * @param key キー
+     * @return キャッシュされた値。存在しないか期限切れの場合はnull
+     */
+    public V get(K key) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.isExpired(now)) {
+                entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    /**
+     * 値をキャッシュに格納します
+     *
+     * @param key   キー
+     * @param value 値
+     */
+    public void put(K key, V value) {
+        long now = clock.getAsLong();
+        long expiresAt = ttlNanos > 0 ? now + ttlNanos : Long.MAX_VALUE;
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * 期限切れのエントリをまとめて削除します
+     *
+     * @return 削除した件数
+     */
+    public int purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isExpired(now)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0 && expiresAt != Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.recipe.app.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link TtlLruCache} のヒット・ミス・破棄の件数とエントリ数をMicrometerに登録するクラス
+ *
+ * <p>Micrometerのキャッシュのメトリクスと同じ名前で登録します。</p>
+ * <ul>
+ *   <li>{@code cache.gets}（cache, result=hit/miss）: 取得の回数</li>
+ *   <li>{@code cache.evictions}（cache）: 上限超過・期限切れで破棄したエントリの数</li>
+ *   <li>{@code cache.size}（cache）: 現在のエントリ数</li>
+ * </ul>
+ */
+public final class TtlLruCacheMetrics {
+
+    private TtlLruCacheMetrics() {
+    }
+
+    /**
+     * キャッシュのメトリクスを登録します
+     *
+     * @param meterRegistry 登録先
+     * @param cacheName     {@code cache} タグの値
+     * @param cache         対象のキャッシュ
+     */
+    public static void bind(MeterRegistry meterRegistry, String cacheName, TtlLruCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, TtlLruCache::hitCount)
+                .description("キャッシュから値を取得できた回数")
+                .tags("cache", cacheName, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, TtlLruCache::missCount)
+                .description("キャッシュに値がなかった（期限切れを含む）回数")
+                .tags("cache", cacheName, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, TtlLruCache::evictionCount)
+                .description("上限超過・期限切れで破棄したエントリの数")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, TtlLruCache::size)
+                .description("キャッシュのエントリ数")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+}
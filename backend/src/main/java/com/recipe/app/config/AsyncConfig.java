@@ -0,0 +1,37 @@
+package com.recipe.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.recipe.app.observability.MdcTaskDecorator;
+
+// 事前生成などの定期実行（@Scheduled）を有効にする
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * レシピのパース・保存などを行う専用のスレッドプール
+     *
+     * <p>リクエスト処理スレッドやAWS SDKのI/Oスレッドで重い処理を行わないために使用します。
+     * キューが一杯になった場合はタスクを拒否します。登録元のスレッドのMDC（{@code requestId}）を引き継ぎます。</p>
+     */
+    @Bean(name = "recipeTaskExecutor")
+    public ThreadPoolTaskExecutor recipeTaskExecutor(
+            @Value("${app.executor.core-pool-size:4}") int corePoolSize,
+            @Value("${app.executor.max-pool-size:8}") int maxPoolSize,
+            @Value("${app.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("recipe-task-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
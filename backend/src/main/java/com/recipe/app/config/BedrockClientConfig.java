@@ -0,0 +1,91 @@
+package com.recipe.app.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.Protocol;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+
+@Configuration
+public class BedrockClientConfig {
+
+    /**
+     * AWSの認証情報プロバイダー
+     *
+     * <p>取得した認証情報はキャッシュされ、期限切れの前にバックグラウンドで更新されます。</p>
+     */
+    @Bean
+    public AwsCredentialsProvider awsCredentialsProvider() {
+        return DefaultCredentialsProvider.builder()
+                .asyncCredentialUpdateEnabled(true)
+                .build();
+    }
+
+    /**
+     * Bedrockとの通信に使うHTTPクライアント
+     *
+     * <p>接続はプールしてKeep-Aliveで再利用し、TLSハンドシェイクをリクエストごとに行わないようにします。
+     * SSLコンテキスト（セッションキャッシュ）はこのクライアント内で共有されるため、
+     * 新しい接続でもTLSセッションが再利用されます。プールの上限はバルクヘッドの同時実行数以上にしてください。</p>
+     */
+    @Bean
+    public SdkAsyncHttpClient bedrockHttpClient(
+            @Value("${aws.bedrock.connection.max-connections:16}") int maxConnections,
+            @Value("${aws.bedrock.connection.connection-timeout:10000}") long connectionTimeoutMs,
+            @Value("${aws.bedrock.connection.acquisition-timeout:10000}") long acquisitionTimeoutMs,
+            @Value("${aws.bedrock.connection.read-timeout:50000}") long readTimeoutMs,
+            @Value("${aws.bedrock.connection.max-idle-ms:50000}") long maxIdleMs) {
+        return NettyNioAsyncHttpClient.builder()
+                .protocol(Protocol.HTTP1_1)
+                .maxConcurrency(maxConnections)
+                .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                .connectionAcquisitionTimeout(Duration.ofMillis(acquisitionTimeoutMs))
+                // 生成が終わるまで応答が届かないため、読み取りのタイムアウトは生成時間より長くする
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .connectionMaxIdleTime(Duration.ofMillis(maxIdleMs))
+                .useIdleConnectionReaper(true)
+                .tcpKeepAlive(true)
+                .build();
+    }
+
+    /**
+     * Bedrockのランタイムクライアント
+     *
+     * <p>リージョン・タイムアウト・リトライ回数は {@code aws.region} と {@code aws.bedrock.connection.*} から設定します。
+     * {@code timeout} はリトライを含む呼び出し全体の上限、{@code attempt-timeout} は1回の試行の上限です。</p>
+     */
+    @Bean
+    public BedrockRuntimeAsyncClient bedrockRuntimeAsyncClient(
+            SdkAsyncHttpClient bedrockHttpClient,
+            AwsCredentialsProvider awsCredentialsProvider,
+            @Value("${aws.region:ap-northeast-1}") String region,
+            @Value("${aws.bedrock.connection.timeout:60000}") long apiCallTimeoutMs,
+            @Value("${aws.bedrock.connection.attempt-timeout:50000}") long attemptTimeoutMs,
+            @Value("${aws.bedrock.connection.max-retries:3}") int maxRetries) {
+        ClientOverrideConfiguration overrideConfiguration = ClientOverrideConfiguration.builder()
+                .apiCallTimeout(Duration.ofMillis(apiCallTimeoutMs))
+                .apiCallAttemptTimeout(Duration.ofMillis(attemptTimeoutMs))
+                .retryPolicy(RetryPolicy.builder(RetryMode.STANDARD)
+                        .numRetries(maxRetries)
+                        .build())
+                .build();
+
+        return BedrockRuntimeAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClient(bedrockHttpClient)
+                .overrideConfiguration(overrideConfiguration)
+                .build();
+    }
+}
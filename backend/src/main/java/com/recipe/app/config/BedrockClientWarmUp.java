@@ -0,0 +1,96 @@
+package com.recipe.app.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
+
+/**
+ * 起動時にBedrockへの接続を確立しておくクラス
+ *
+ * <p>認証情報を取得したうえで、空のボディで {@code InvokeModel} を呼び出します（検証エラーになるため
+ * モデルは実行されず、課金もされません）。これにより、最初のリクエストでTLSハンドシェイクや
+ * 認証情報の取得を待たないようにします。受付開始（readiness）はウォームアップが終わるか
+ * {@code timeout-ms} を超えるまで遅れます。失敗しても起動は継続します。</p>
+ *
+ * <p>AOT処理ではビルド時に条件が評価されるため、有効・無効は起動時に設定値で判定します。</p>
+ */
+@Component
+@Lazy(false)
+public class BedrockClientWarmUp {
+
+    private static final Logger log = LoggerFactory.getLogger(BedrockClientWarmUp.class);
+
+    private final boolean enabled;
+    private final BedrockRuntimeAsyncClient bedrockAsyncClient;
+    private final AwsCredentialsProvider awsCredentialsProvider;
+    private final String modelId;
+    private final int connections;
+    private final long timeoutMs;
+
+    public BedrockClientWarmUp(
+            @Value("${aws.bedrock.connection.warm-up.enabled:false}") boolean enabled,
+            BedrockRuntimeAsyncClient bedrockAsyncClient,
+            AwsCredentialsProvider awsCredentialsProvider,
+            @Value("${aws.bedrock.model-id}") String modelId,
+            @Value("${aws.bedrock.connection.warm-up.connections:2}") int connections,
+            @Value("${aws.bedrock.connection.warm-up.timeout-ms:10000}") long timeoutMs) {
+        this.enabled = enabled;
+        this.bedrockAsyncClient = bedrockAsyncClient;
+        this.awsCredentialsProvider = awsCredentialsProvider;
+        this.modelId = modelId;
+        this.connections = connections;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            awsCredentialsProvider.resolveCredentials();
+        } catch (RuntimeException e) {
+            log.warn("Bedrockクライアントのウォームアップを中止しました（認証情報を取得できません）: {}", e.getMessage());
+            return;
+        }
+
+        // 同時に呼び出し、プールに複数の接続を作っておく（応答の内容・エラーは問わない）
+        InvokeModelRequest request = InvokeModelRequest.builder()
+                .modelId(modelId)
+                .body(SdkBytes.fromUtf8String("{}"))
+                .build();
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[connections];
+        for (int i = 0; i < connections; i++) {
+            calls[i] = bedrockAsyncClient.invokeModel(request).handle((response, error) -> null);
+        }
+
+        try {
+            CompletableFuture.allOf(calls).get(timeoutMs, TimeUnit.MILLISECONDS);
+            log.atInfo().setMessage("Bedrockクライアントのウォームアップが完了しました")
+                    .addKeyValue("connections", connections)
+                    .addKeyValue("elapsedMs", System.currentTimeMillis() - startTime)
+                    .log();
+        } catch (TimeoutException e) {
+            log.warn("Bedrockクライアントのウォームアップがタイムアウトしました: {}ms", timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Bedrockクライアントのウォームアップに失敗しました: {}", e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.recipe.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.recipe.app.repository.RecipeDocumentRepository;
+import com.recipe.app.repository.RecipeRepository;
+import com.recipe.app.service.RecipeStore;
+import com.recipe.app.service.impl.DocumentRecipeStore;
+import com.recipe.app.service.impl.RelationalRecipeStore;
+
+// 保存形式はAOT処理時ではなく起動時に決まるよう、条件付きBeanではなく設定値で選択する
+@Configuration
+public class RecipeStoreConfig {
+
+    /**
+     * レシピの保存先
+     *
+     * <p>{@code app.recipe-storage.mode} が {@code relational}（既定）の場合は正規化したテーブル、
+     * {@code document} の場合はjsonbの1行に保存します。</p>
+     */
+    @Bean
+    public RecipeStore recipeStore(
+            @Value("${app.recipe-storage.mode:relational}") String mode,
+            RecipeRepository recipeRepository,
+            RecipeDocumentRepository documentRepository) {
+        return switch (mode) {
+            case "relational" -> new RelationalRecipeStore(recipeRepository);
+            case "document" -> new DocumentRecipeStore(documentRepository);
+            default -> throw new IllegalArgumentException("不明なレシピの保存形式です: " + mode);
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.recipe.app.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.recipe.app.resilience.AsyncBulkhead;
+import com.recipe.app.resilience.CircuitBreaker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * Bedrockの呼び出しの同時実行数を制限するバルクヘッド
+     *
+     * <p>実行中の数・待ち行列の長さ・待ち時間・拒否数を {@code bedrock.bulkhead.*} のメトリクスとして公開します。</p>
+     */
+    @Bean
+    public AsyncBulkhead bedrockBulkhead(
+            @Value("${aws.bedrock.bulkhead.max-concurrent-calls:8}") int maxConcurrentCalls,
+            @Value("${aws.bedrock.bulkhead.max-queue-size:16}") int maxQueueSize,
+            @Value("${aws.bedrock.bulkhead.max-queue-wait-ms:10000}") long maxQueueWaitMs,
+            @Value("${aws.bedrock.bulkhead.retry-after-seconds:5}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        Timer queueWait = Timer.builder("bedrock.bulkhead.queue.wait")
+                .description("Bedrock呼び出しが開始されるまでの待ち時間")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        AsyncBulkhead bulkhead = new AsyncBulkhead(
+                maxConcurrentCalls,
+                maxQueueSize,
+                Duration.ofMillis(maxQueueWaitMs),
+                Duration.ofSeconds(retryAfterSeconds),
+                nanos -> queueWait.record(nanos, TimeUnit.NANOSECONDS));
+
+        Gauge.builder("bedrock.bulkhead.active", bulkhead, AsyncBulkhead::activeCount)
+                .description("実行中のBedrock呼び出しの数")
+                .register(meterRegistry);
+        Gauge.builder("bedrock.bulkhead.queue.depth", bulkhead, AsyncBulkhead::queueDepth)
+                .description("開始待ちのBedrock呼び出しの数")
+                .register(meterRegistry);
+        FunctionCounter.builder("bedrock.bulkhead.rejected", bulkhead, AsyncBulkhead::rejectedCount)
+                .description("待ち行列の満杯・待ち時間の超過で拒否した呼び出しの数")
+                .register(meterRegistry);
+        return bulkhead;
+    }
+
+    /**
+     * Bedrockの障害・スロットリング時に呼び出しを止めるサーキットブレーカー
+     *
+     * <p>状態（0: CLOSED, 1: OPEN, 2: HALF_OPEN）・状態の遷移数・呼び出さなかった数を
+     * {@code bedrock.circuit.*} のメトリクスとして公開します。</p>
+     */
+    @Bean
+    public CircuitBreaker bedrockCircuitBreaker(
+            @Value("${aws.bedrock.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${aws.bedrock.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${aws.bedrock.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${aws.bedrock.circuit-breaker.slow-call-threshold-ms:45000}") long slowCallThresholdMs,
+            @Value("${aws.bedrock.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+            @Value("${aws.bedrock.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+            @Value("${aws.bedrock.circuit-breaker.half-open-trial-calls:2}") int halfOpenTrialCalls,
+            MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                "Bedrock",
+                windowSize,
+                minimumCalls,
+                failureRateThreshold,
+                Duration.ofMillis(slowCallThresholdMs),
+                slowCallRateThreshold,
+                Duration.ofMillis(openDurationMs),
+                halfOpenTrialCalls,
+                (from, to) -> meterRegistry.counter("bedrock.circuit.transitions", "to", to.name()).increment());
+
+        Gauge.builder("bedrock.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("サーキットブレーカーの状態（0: CLOSED, 1: OPEN, 2: HALF_OPEN）")
+                .register(meterRegistry);
+        FunctionCounter.builder("bedrock.circuit.not_permitted", circuitBreaker, CircuitBreaker::notPermittedCount)
+                .description("サーキットブレーカーが開いていたために呼び出さなかった数")
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+}
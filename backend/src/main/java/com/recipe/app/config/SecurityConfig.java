@@ -1,5 +1,7 @@
 package com.recipe.app.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -14,8 +16,12 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable()) // テスト用にCSRFも無効化
                 .authorizeHttpRequests(auth -> auth
+                        // 管理用エンドポイントはメトリクスや利用者のリクエスト内容を含むため、health以外は認証を求める
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ACTUATOR")
                         .anyRequest().permitAll()
-                );
+                )
+                .httpBasic(Customizer.withDefaults());
         return http.build();
     }
 }
@@ -17,6 +17,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins(allowedOrigins)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // ブラウザから処理時間とリクエストIDを参照できるようにする
+                .exposedHeaders("Server-Timing", "X-Request-Id")
                 .allowCredentials(true);
     }
 }
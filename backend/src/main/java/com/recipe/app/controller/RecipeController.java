@@ -1,48 +1,228 @@
 package com.recipe.app.controller;
 
+import com.recipe.app.dto.BatchRecipeRequest;
 import com.recipe.app.dto.RecipeRequest;
 import com.recipe.app.dto.RecipeResponse;
+import com.recipe.app.observability.RequestTimings;
+import com.recipe.app.resilience.BulkheadFullException;
+import com.recipe.app.service.RecipeResponseCache;
+import com.recipe.app.service.RecipeResponseCache.SerializedResponse;
 import com.recipe.app.service.RecipeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+// レシピ提案はAI呼び出し・DB保存の経路をまとめて起動時に初期化する（遅延初期化の対象外）
 @RestController
+@Lazy(false)
 @RequestMapping("/api/v1/recipes")
 public class RecipeController {
 
+    private static final String SERVER_TIMING = "Server-Timing";
+
     private final RecipeService recipeService;
+    private final RecipeResponseCache recipeResponseCache;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${app.suggest.stream.timeout-ms:90000}")
+    private long streamTimeoutMs;
     
     // コンストラクタインジェクション
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService, RecipeResponseCache recipeResponseCache,
+            ObjectMapper objectMapper) {
         this.recipeService = recipeService;
+        this.recipeResponseCache = recipeResponseCache;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * レシピ提案を非同期で返します
+     *
+     * <p>AIの生成中はリクエスト処理スレッドを解放します。処理段階ごとの時間を {@code Server-Timing} ヘッダーで返します。</p>
+     */
     @PostMapping("/suggest")
-    public ResponseEntity<RecipeResponse> suggestRecipes(@Valid @RequestBody RecipeRequest request) {
-        RecipeResponse response = recipeService.suggestRecipes(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<byte[]>> suggestRecipes(@Valid @RequestBody RecipeRequest request) {
+        RequestTimings timings = RequestTimings.current();
+        return recipeService.suggestRecipes(request)
+                .thenApply(response -> toJsonResponse(response, timings));
+    }
+    
+    /**
+     * 複数のレシピ提案をまとめて非同期で返します
+     *
+     * <p>結果はリクエストと同じ順序で、それぞれ {@code SUCCESS} または {@code FALLBACK} の状態を持ちます。</p>
+     */
+    @PostMapping("/suggest/batch")
+    public CompletableFuture<ResponseEntity<byte[]>> suggestRecipesBatch(
+            @Valid @RequestBody BatchRecipeRequest request) {
+        RequestTimings timings = RequestTimings.current();
+        return recipeService.suggestRecipesBatch(request.getRequests())
+                .thenApply(response -> toJsonResponse(response, timings));
+    }
+    
+    /**
+     * レスポンスをJSONに変換し、{@code Server-Timing} ヘッダーを付けます
+     *
+     * <p>シリアライズの時間もヘッダーに含めるため、ヘッダーを送信する前にJSONに変換します。</p>
+     */
+    private ResponseEntity<byte[]> toJsonResponse(RecipeResponse response, RequestTimings timings) {
+        long serializeStartNanos = System.nanoTime();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (timings != null) {
+            timings.recordSince(RequestTimings.SERIALIZE, serializeStartNanos);
+            builder.header(SERVER_TIMING, timings.toServerTiming());
+        }
+        return builder.body(body);
+    }
+    
+    /**
+     * レシピ提案をServer-Sent Eventsで返します
+     *
+     * <p>レシピが1件生成されるごとに {@code recipe} イベントを送信し、
+     * 最後に件数を含む {@code done} イベントを送信します。</p>
+     *
+     * <p>レスポンスは200で送信済みのため、Bedrockの同時実行数の上限で拒否された場合は429を返せません。
+     * 代わりに {@code status}・{@code message}・{@code retryAfter}（秒）を含む {@code error} イベントを送信して終了します。</p>
+     *
+     * <p>クライアントの切断・タイムアウトでストリームが終わった場合は、生成を中止してBedrockの同時実行数の枠を空けます。</p>
+     */
+    @PostMapping(value = "/suggest/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suggestRecipesStream(@Valid @RequestBody RecipeRequest request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        
+        CompletableFuture<Integer> generation = recipeService.streamRecipes(request, recipe -> {
+            try {
+                emitter.send(SseEmitter.event().name("recipe").data(recipe, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generation.whenComplete((count, error) -> {
+            if (error instanceof CancellationException) {
+                return; // ストリームは終了済み
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof BulkheadFullException overloaded) {
+                sendOverloaded(emitter, overloaded);
+                return;
+            }
+            if (error != null) {
+                emitter.completeWithError(error);
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("done").data(Map.of("count", count), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        
+        // クライアントの切断・タイムアウトで終わった場合は生成を中止する（正常に完了した後のcancelは何もしない）
+        emitter.onTimeout(() -> {
+            generation.cancel(true);
+            emitter.complete();
+        });
+        emitter.onError(error -> generation.cancel(true));
+        emitter.onCompletion(() -> generation.cancel(true));
+        
+        return emitter;
     }
     
+    private static void sendOverloaded(SseEmitter emitter, BulkheadFullException overloaded) {
+        long retryAfterSeconds = Math.max(1, overloaded.getRetryAfter().toSeconds());
+        Map<String, Object> data = Map.of(
+                "status", HttpStatus.TOO_MANY_REQUESTS.value(),
+                "message", overloaded.getMessage(),
+                "retryAfter", retryAfterSeconds);
+        try {
+            emitter.send(SseEmitter.event().name("error")
+                    .reconnectTime(retryAfterSeconds * 1000)
+                    .data(data, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+    
+    /**
+     * レシピの詳細を返します
+     *
+     * <p>シリアライズ済みのレスポンスをキャッシュから返し、If-None-MatchのETagが一致する場合は
+     * 304 Not Modifiedを返します。キャッシュは数値に変換したIDで引くため、{@code /01} と {@code /1} は同じエントリです。</p>
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<RecipeResponse> getRecipeById(@PathVariable String id) {
+    public ResponseEntity<?> getRecipeById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RequestTimings timings = RequestTimings.current();
         try {
-            RecipeResponse response = recipeService.getRecipeById(id);
-            return ResponseEntity.ok(response);
+            long recipeId = parseRecipeId(id);
+            SerializedResponse response = recipeResponseCache.get(recipeId,
+                    () -> recipeService.getRecipeById(Long.toString(recipeId)), timings);
+            if (response.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(response.etag())
+                        .headers(serverTiming(timings))
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(response.etag())
+                    .headers(serverTiming(timings))
+                    .body(response.body());
         } catch (Exception e) {
             Map<String, Object> errorData = new HashMap<>();
             errorData.put("message", e.getMessage());
             
             RecipeResponse errorResponse = new RecipeResponse(false, null, "レシピの取得に失敗しました: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .headers(serverTiming(timings))
+                    .body(errorResponse);
+        }
+    }
+    
+    private static long parseRecipeId(String id) throws Exception {
+        try {
+            return Long.parseLong(id.strip());
+        } catch (NumberFormatException e) {
+            throw new Exception("無効なレシピIDの形式です: " + id);
+        }
+    }
+
+    private static HttpHeaders serverTiming(RequestTimings timings) {
+        HttpHeaders headers = new HttpHeaders();
+        if (timings != null) {
+            headers.set(SERVER_TIMING, timings.toServerTiming());
         }
+        return headers;
     }
 }
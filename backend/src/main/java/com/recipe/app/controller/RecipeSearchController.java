@@ -0,0 +1,197 @@
+package com.recipe.app.controller;
+
+import com.recipe.app.dto.PantrySearchRequest;
+import com.recipe.app.dto.RecipeResponse;
+import com.recipe.app.model.Recipe;
+import com.recipe.app.search.IngredientIndex;
+import com.recipe.app.search.IngredientIndex.PantryMatch;
+import com.recipe.app.search.RecipeTextIndex;
+import com.recipe.app.search.RecipeTextIndex.SearchPage;
+import com.recipe.app.service.RecipeBrowseService;
+import com.recipe.app.service.RecipeBrowseService.BrowsePage;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 保存済みのレシピを検索するAPI
+ */
+@RestController
+@RequestMapping("/api/v1/recipes")
+public class RecipeSearchController {
+
+    private final IngredientIndex ingredientIndex;
+    private final RecipeTextIndex recipeTextIndex;
+    private final RecipeBrowseService recipeBrowseService;
+
+    // コンストラクタインジェクション
+    public RecipeSearchController(IngredientIndex ingredientIndex, RecipeTextIndex recipeTextIndex,
+            RecipeBrowseService recipeBrowseService) {
+        this.ingredientIndex = ingredientIndex;
+        this.recipeTextIndex = recipeTextIndex;
+        this.recipeBrowseService = recipeBrowseService;
+    }
+
+    /**
+     * 難易度と最大調理時間でレシピの一覧を調理時間の短い順に返します
+     *
+     * <p>次のページは、レスポンスの {@code nextCursor} を {@code cursor} に指定して取得します。</p>
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<RecipeResponse> browse(
+            @RequestParam Recipe.Difficulty difficulty,
+            @RequestParam(defaultValue = "2147483647") int maxCookingTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > 100) {
+            return badRequest("件数は1〜100で指定してください");
+        }
+        try {
+            return ResponseEntity.ok(toResponse(
+                    recipeBrowseService.browseByDifficulty(difficulty, maxCookingTime, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * タグを持つレシピの一覧を登録順に返します
+     */
+    @GetMapping("/browse/tags/{tag}")
+    public ResponseEntity<RecipeResponse> browseByTag(
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > 100) {
+            return badRequest("件数は1〜100で指定してください");
+        }
+        try {
+            return ResponseEntity.ok(toResponse(recipeBrowseService.browseByTag(tag, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * 材料（名前の完全一致）を使うレシピの一覧を登録順に返します
+     */
+    @GetMapping("/browse/ingredients/{ingredient}")
+    public ResponseEntity<RecipeResponse> browseByIngredient(
+            @PathVariable String ingredient,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > 100) {
+            return badRequest("件数は1〜100で指定してください");
+        }
+        try {
+            return ResponseEntity.ok(toResponse(recipeBrowseService.browseByIngredient(ingredient, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * キーワードでレシピのタイトル・説明・手順を全文検索します
+     *
+     * @param q    キーワード（2文字以上）
+     * @param page ページ番号（0始まり）
+     * @param size 1ページあたりの件数（最大100）
+     */
+    @GetMapping("/search")
+    public ResponseEntity<RecipeResponse> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (q.strip().length() < 2 || page < 0 || size < 1 || size > 100) {
+            return badRequest("キーワードは2文字以上、件数は1〜100で指定してください");
+        }
+
+        SearchPage result = recipeTextIndex.search(q, page, size);
+        List<Map<String, Object>> hits = result.hits().stream()
+                .map(hit -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("id", Long.toString(hit.recipeId()));
+                    map.put("title", hit.title());
+                    map.put("description", hit.description());
+                    map.put("score", hit.score());
+                    return map;
+                })
+                .collect(Collectors.toList());
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("recipes", hits);
+        data.put("page", result.page());
+        data.put("size", result.size());
+        data.put("total", result.total());
+
+        return ResponseEntity.ok(new RecipeResponse(true, data, null));
+    }
+
+    /**
+     * 手持ちの食材から作れるレシピを検索します
+     *
+     * <p>{@code makeable} には手持ちの食材（と基本調味料）だけで作れるレシピ、
+     * {@code ranked} には一致する材料の多い順のレシピを返します。</p>
+     */
+    @PostMapping("/pantry")
+    public ResponseEntity<RecipeResponse> searchByPantry(@Valid @RequestBody PantrySearchRequest request) {
+        int limit = request.getLimit() != null ? request.getLimit() : 10;
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("makeable", toMaps(ingredientIndex.findMakeable(request.getIngredients(), limit)));
+        data.put("ranked", toMaps(ingredientIndex.findTopByOverlap(request.getIngredients(), limit)));
+        data.put("indexedRecipes", ingredientIndex.size());
+
+        return ResponseEntity.ok(new RecipeResponse(true, data, null));
+    }
+
+    private RecipeResponse toResponse(BrowsePage page) {
+        List<Map<String, Object>> items = page.items().stream()
+                .map(summary -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("id", summary.getId().toString());
+                    map.put("title", summary.getTitle());
+                    map.put("description", summary.getDescription());
+                    map.put("cookingTime", summary.getCookingTime());
+                    map.put("difficulty", summary.getDifficulty().name());
+                    map.put("servingSize", summary.getServingSize());
+                    return map;
+                })
+                .collect(Collectors.toList());
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("recipes", items);
+        data.put("nextCursor", page.nextCursor());
+        return new RecipeResponse(true, data, null);
+    }
+
+    private ResponseEntity<RecipeResponse> badRequest(String message) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new RecipeResponse(false, null, message));
+    }
+
+    private List<Map<String, Object>> toMaps(List<PantryMatch> matches) {
+        return matches.stream()
+                .map(match -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("id", Long.toString(match.recipeId()));
+                    map.put("title", match.title());
+                    map.put("matchedCount", match.matchedCount());
+                    map.put("requiredCount", match.requiredCount());
+                    map.put("missingCount", match.missingCount());
+                    return map;
+                })
+                .collect(Collectors.toList());
+    }
+}
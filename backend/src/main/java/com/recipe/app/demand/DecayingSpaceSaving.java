@@ -0,0 +1,202 @@
+package com.recipe.app.demand;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 一定のメモリで出現回数の多いキーを追跡する、時間減衰付きのSpace-Savingアルゴリズム
+ *
+ * <p>最大 {@code capacity} 件のキーとその回数を最小ヒープで保持し、追跡していないキーが来たときは
+ * 回数が最小のキーと入れ替えます（入れ替えたキーは最小値を引き継ぎ、その分を誤差として記録します）。
+ * 回数は半減期 {@code halfLife} で減衰し、最近の出現ほど大きく数えられます。</p>
+ *
+ * <p>減衰はforward decay（基準時刻からの経過時間に応じて重みを増やし、参照時に割り戻す）で行うため、
+ * 追加のたびに全件を更新する必要はありません。重みが大きくなりすぎる前に基準時刻を進めて正規化します。</p>
+ *
+ * @param <K> キーの型
+ */
+public class DecayingSpaceSaving<K> {
+
+    // 重みの指数がこれを超えたら基準時刻を進める（double の範囲に余裕を持たせる）
+    private static final double RESCALE_EXPONENT = 50.0;
+
+    private final int capacity;
+    private final double decayPerNano;
+    private final LongSupplier clock;
+
+    private final Object[] keys;
+    private final double[] counts;
+    private final double[] errors;
+    private final Map<K, Integer> positions;
+    private int size;
+    private double totalWeight;
+    private long landmarkNanos;
+
+    /**
+     * 出現回数の上位のキーと、その推定回数
+     *
+     * @param key   キー
+     * @param count 減衰後の推定回数（実際の回数以上）
+     * @param error 推定回数に含まれうる誤差（{@code count - error} は実際の回数以下）
+     */
+    public record Entry<K>(K key, double count, double error) {
+    }
+
+    /**
+     * @param capacity 追跡するキーの最大数
+     * @param halfLife 回数が半分になるまでの時間
+     */
+    public DecayingSpaceSaving(int capacity, Duration halfLife) {
+        this(capacity, halfLife, System::nanoTime);
+    }
+
+    DecayingSpaceSaving(int capacity, Duration halfLife, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity は1以上を指定してください: " + capacity);
+        }
+        if (halfLife.isZero() || halfLife.isNegative()) {
+            throw new IllegalArgumentException("halfLife は正の時間を指定してください: " + halfLife);
+        }
+        this.capacity = capacity;
+        this.decayPerNano = Math.log(2) / halfLife.toNanos();
+        this.clock = clock;
+        this.keys = new Object[capacity];
+        this.counts = new double[capacity];
+        this.errors = new double[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+        this.landmarkNanos = clock.getAsLong();
+    }
+
+    /**
+     * キーの出現を1回記録します
+     */
+    public void add(K key) {
+        add(key, 1.0);
+    }
+
+    /**
+     * キーの出現を指定の重みで記録します
+     */
+    public synchronized void add(K key, double weight) {
+        double scaled = weight * growth(clock.getAsLong());
+        totalWeight += scaled;
+
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position] += scaled;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            set(size, key, scaled, 0.0);
+            siftUp(size++);
+            return;
+        }
+        // 最小のキーを入れ替え、最小値を誤差として引き継ぐ
+        positions.remove(key(0));
+        double minimum = counts[0];
+        set(0, key, minimum + scaled, minimum);
+        siftDown(0);
+    }
+
+    /**
+     * 推定回数の多い順にキーを返します
+     *
+     * @param limit 返す最大件数
+     * @return 推定回数の多い順のキー
+     */
+    public synchronized List<Entry<K>> top(int limit) {
+        double growth = growth(clock.getAsLong());
+        List<Entry<K>> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry<>(key(i), counts[i] / growth, errors[i] / growth));
+        }
+        entries.sort(Comparator.comparingDouble((Entry<K> entry) -> entry.count()).reversed());
+        return entries.size() > limit ? List.copyOf(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * 記録したすべての出現の減衰後の合計（追跡していないキーの分を含みます）
+     */
+    public synchronized double total() {
+        return totalWeight / growth(clock.getAsLong());
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 基準時刻からの重みの倍率を返します（大きくなりすぎる場合は先に基準時刻を進めます）
+     */
+    private double growth(long nowNanos) {
+        double exponent = decayPerNano * (nowNanos - landmarkNanos);
+        if (exponent > RESCALE_EXPONENT) {
+            double factor = Math.exp(exponent);
+            for (int i = 0; i < size; i++) {
+                counts[i] /= factor;
+                errors[i] /= factor;
+            }
+            totalWeight /= factor;
+            landmarkNanos = nowNanos;
+            return 1.0;
+        }
+        return Math.exp(exponent);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int position) {
+        return (K) keys[position];
+    }
+
+    private void set(int position, K key, double count, double error) {
+        keys[position] = key;
+        counts[position] = count;
+        errors[position] = error;
+        positions.put(key, position);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = position * 2 + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        K keyA = key(a);
+        K keyB = key(b);
+        double countA = counts[a];
+        double errorA = errors[a];
+        set(a, keyB, counts[b], errors[b]);
+        set(b, keyA, countA, errorA);
+    }
+}
@@ -0,0 +1,63 @@
+package com.recipe.app.demand;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.recipe.app.demand.DemandHeavyHitters.Dimension;
+import com.recipe.app.demand.DemandHeavyHitters.TopList;
+
+/**
+ * 多く指定される食材・組み合わせ・条件を返す管理用エンドポイント（{@code /actuator/demand}）
+ *
+ * <ul>
+ *   <li>{@code GET /actuator/demand}: すべての集計単位・集計期間の上位10件</li>
+ *   <li>{@code GET /actuator/demand/{dimension}?window=1h&limit=50}: 指定した集計単位の上位
+ *       （{@code dimension} は {@code ingredient}・{@code ingredient_set}・{@code preference}）</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "demand")
+public class DemandEndpoint {
+
+    private static final int SUMMARY_LIMIT = 10;
+    private static final int MAX_LIMIT = 1000;
+
+    private final DemandHeavyHitters heavyHitters;
+
+    public DemandEndpoint(DemandHeavyHitters heavyHitters) {
+        this.heavyHitters = heavyHitters;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, TopList>> summary() {
+        Map<String, Map<String, TopList>> summary = new LinkedHashMap<>();
+        for (String window : heavyHitters.windows()) {
+            Map<String, TopList> lists = new LinkedHashMap<>();
+            for (Dimension dimension : Dimension.values()) {
+                lists.put(dimension.id(), heavyHitters.top(dimension, window, SUMMARY_LIMIT));
+            }
+            summary.put(window, lists);
+        }
+        return summary;
+    }
+
+    @ReadOperation
+    public TopList top(@Selector String dimension, @Nullable String window, @Nullable Integer limit) {
+        Dimension selected;
+        try {
+            selected = Dimension.valueOf(dimension.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String selectedWindow = window != null ? window : heavyHitters.windows().get(0);
+        int selectedLimit = limit != null ? Math.max(1, Math.min(limit, MAX_LIMIT)) : 50;
+        return heavyHitters.top(selected, selectedWindow, selectedLimit);
+    }
+}
@@ -0,0 +1,133 @@
+package com.recipe.app.demand;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import com.recipe.app.service.RecipeRequestKey;
+
+/**
+ * レシピ提案で多く指定される食材・食材の組み合わせ・条件を、期間（半減期）ごとに追跡するクラス
+ *
+ * <p>集計の単位（{@link Dimension}）と半減期（{@code app.demand.half-lives}）の組み合わせごとに
+ * {@link DecayingSpaceSaving} を持ち、それぞれ最大 {@code app.demand.capacity} 件のキーだけを保持します。
+ * キャッシュの件数や事前生成の対象を決めるための統計で、結果は {@code /actuator/demand} で参照できます。</p>
+ */
+@Component
+public class DemandHeavyHitters {
+
+    /**
+     * 集計の単位
+     */
+    public enum Dimension {
+        /** 食材（1件のリクエストに含まれる食材をそれぞれ数える） */
+        INGREDIENT,
+        /** 食材の組み合わせ（正規化・ソート済み） */
+        INGREDIENT_SET,
+        /** 条件（{@code difficulty=EASY} など） */
+        PREFERENCE;
+
+        public String id() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<String, Map<Dimension, DecayingSpaceSaving<String>>> windows = new LinkedHashMap<>();
+
+    public DemandHeavyHitters(
+            @Value("${app.demand.capacity:200}") int capacity,
+            @Value("${app.demand.half-lives:1h,1d,7d}") List<String> halfLives) {
+        for (String halfLife : halfLives) {
+            Duration duration = DurationStyle.detectAndParse(halfLife.strip());
+            Map<Dimension, DecayingSpaceSaving<String>> sketches = new EnumMap<>(Dimension.class);
+            for (Dimension dimension : Dimension.values()) {
+                sketches.put(dimension, new DecayingSpaceSaving<>(capacity, duration));
+            }
+            windows.put(halfLife.strip(), sketches);
+        }
+    }
+
+    /**
+     * レシピ提案を1回受け付けたことを記録します
+     *
+     * @param key 正規化されたリクエストキー
+     */
+    public void record(RecipeRequestKey key) {
+        List<String> preferences = preferences(key);
+        String ingredientSet = String.join(" + ", key.ingredients());
+        for (Map<Dimension, DecayingSpaceSaving<String>> sketches : windows.values()) {
+            DecayingSpaceSaving<String> ingredients = sketches.get(Dimension.INGREDIENT);
+            for (String ingredient : key.ingredients()) {
+                ingredients.add(ingredient);
+            }
+            sketches.get(Dimension.INGREDIENT_SET).add(ingredientSet);
+            DecayingSpaceSaving<String> preferenceSketch = sketches.get(Dimension.PREFERENCE);
+            for (String preference : preferences) {
+                preferenceSketch.add(preference);
+            }
+        }
+    }
+
+    private static List<String> preferences(RecipeRequestKey key) {
+        List<String> preferences = new ArrayList<>(6);
+        preferences.add("difficulty=" + key.difficulty());
+        preferences.add("recipeCount=" + key.recipeCount());
+        if (key.cookingTime() != null) {
+            preferences.add("cookingTime=" + key.cookingTime());
+        }
+        if (key.servingSize() != null) {
+            preferences.add("servingSize=" + key.servingSize());
+        }
+        if (key.cuisineType() != null) {
+            preferences.add("cuisineType=" + key.cuisineType());
+        }
+        for (String excluded : key.excludedIngredients()) {
+            preferences.add("excluded=" + excluded);
+        }
+        return preferences;
+    }
+
+    /**
+     * 集計期間（半減期の表記）の一覧を返します
+     */
+    public List<String> windows() {
+        return List.copyOf(windows.keySet());
+    }
+
+    /**
+     * 推定回数の多い順にキーを返します
+     *
+     * @param dimension 集計の単位
+     * @param window    集計期間（半減期の表記）
+     * @param limit     返す最大件数
+     * @return 推定回数の多い順のキー。集計期間が存在しない場合はnull
+     */
+    public TopList top(Dimension dimension, String window, int limit) {
+        Map<Dimension, DecayingSpaceSaving<String>> sketches = windows.get(window);
+        if (sketches == null) {
+            return null;
+        }
+        DecayingSpaceSaving<String> sketch = sketches.get(dimension);
+        return new TopList(dimension.id(), window, sketch.total(), sketch.top(limit));
+    }
+
+    /**
+     * 上位のキーの一覧
+     *
+     * @param dimension 集計の単位
+     * @param window    集計期間（半減期の表記）
+     * @param total     減衰後の全体の回数（追跡していないキーの分を含む）
+     * @param entries   推定回数の多い順のキー
+     */
+    public record TopList(String dimension, String window, double total,
+            List<DecayingSpaceSaving.Entry<String>> entries) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.recipe.app.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class BatchRecipeRequest {
+    // まとめて提案するリクエスト（1週間分の献立など）
+    @Valid
+    @NotEmpty(message = "リクエストのリストは必須です")
+    @Size(min = 1, max = 14, message = "リクエストは1〜14件まで指定できます")
+    private List<RecipeRequest> requests;
+
+    // コンストラクタ
+    public BatchRecipeRequest() {}
+
+}
@@ -0,0 +1,28 @@
+package com.recipe.app.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class PantrySearchRequest {
+    // 手持ちの食材
+    @NotEmpty(message = "食材リストは必須です")
+    @Size(min = 1, max = 20, message = "食材は1〜20個まで指定できます")
+    private List<String> ingredients;
+
+    // 返却する最大件数
+    @Min(value = 1, message = "件数は1以上を指定してください")
+    @Max(value = 100, message = "件数は100以下を指定してください")
+    private Integer limit = 10;
+
+    // コンストラクタ
+    public PantrySearchRequest() {}
+
+}
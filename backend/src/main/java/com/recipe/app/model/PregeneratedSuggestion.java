@@ -0,0 +1,40 @@
+package com.recipe.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * 事前生成したレシピ提案（AIが生成したテキスト）
+ */
+@Entity
+@Table(name = "pregenerated_suggestions")
+@Data
+public class PregeneratedSuggestion {
+    
+    // 正規化したリクエストキー（JSON）のSHA-256
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+    
+    // 正規化したリクエストキー（JSON）
+    @Column(name = "request_key", nullable = false, columnDefinition = "TEXT")
+    private String requestKey;
+    
+    // AIが生成したテキスト（レシピのJSONを含む）
+    @Column(name = "generated_text", nullable = false, columnDefinition = "TEXT")
+    private String generatedText;
+    
+    @Column(name = "input_tokens", nullable = false)
+    private int inputTokens;
+    
+    @Column(name = "output_tokens", nullable = false)
+    private int outputTokens;
+    
+    @Column(name = "generated_at", nullable = false)
+    private Instant generatedAt;
+    
+    // JPA用の引数なしコンストラクタ
+    public PregeneratedSuggestion() {}
+}
@@ -2,26 +2,34 @@ package com.recipe.app.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
-import org.hibernate.annotations.Index;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "recipes", indexes = {
-    @jakarta.persistence.Index(name = "idx_recipe_title", columnList = "title")
+    @jakarta.persistence.Index(name = "idx_recipe_title", columnList = "title"),
+    // 難易度・調理時間での一覧取得（キーセットページング）用
+    @jakarta.persistence.Index(name = "idx_recipe_difficulty_time_id", columnList = "difficulty, cooking_time, id"),
+    // 同じ内容のレシピの重複保存を防ぐ
+    @jakarta.persistence.Index(name = "uk_recipe_content_hash", columnList = "content_hash", unique = true)
 })
 @Data
 public class Recipe {
     
+    // シーケンスをまとめて採番し（pooled）、INSERTのJDBCバッチ化を可能にする
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     private Long id;
     
     private String title;
     private String description;
     
-    @ElementCollection(fetch = FetchType.EAGER)
+    // コレクションは遅延ロードし、複数レシピ分を IN 句でまとめて取得する（N+1の回避）
+    @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(
         name = "recipe_ingredients", 
         joinColumns = @JoinColumn(name = "recipe_id"),
@@ -30,6 +38,7 @@ public class Recipe {
     private List<Ingredient> ingredients = new ArrayList<>();
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "recipe_instructions", joinColumns = @JoinColumn(name = "recipe_id"))
     @Column(name = "instruction_step")
     private List<String> instructions = new ArrayList<>();
@@ -42,7 +51,13 @@ public class Recipe {
     private Integer servingSize;
     
     @ElementCollection
-    @CollectionTable(name = "recipe_tags", joinColumns = @JoinColumn(name = "recipe_id"))
+    @BatchSize(size = 50)
+    @CollectionTable(
+        name = "recipe_tags",
+        joinColumns = @JoinColumn(name = "recipe_id"),
+        // タグでの一覧取得（キーセットページング）用
+        indexes = @jakarta.persistence.Index(name = "idx_recipe_tag_recipe", columnList = "tag, recipe_id")
+    )
     @Column(name = "tag")
     private List<String> tags = new ArrayList<>();
     
@@ -51,6 +66,10 @@ public class Recipe {
     
     private String imageUrl;
     
+    // 内容の指紋（RecipeFingerprint）。同じ内容のレシピは保存せず、保存済みの行を使う
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
     public enum Difficulty {
         EASY, MEDIUM, HARD
     }
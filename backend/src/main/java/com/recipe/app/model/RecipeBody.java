@@ -0,0 +1,20 @@
+package com.recipe.app.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ドキュメント形式（{@link RecipeDocument}）で1つのJSONにまとめて保存するレシピの内容
+ */
+@Data
+public class RecipeBody {
+    private List<Ingredient> ingredients = new ArrayList<>();
+    private List<String> instructions = new ArrayList<>();
+    private List<String> tags = new ArrayList<>();
+    private NutritionInfo nutritionInfo;
+    
+    // JSON変換用の引数なしコンストラクタ
+    public RecipeBody() {}
+}
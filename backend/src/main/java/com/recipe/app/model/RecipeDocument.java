@@ -0,0 +1,48 @@
+package com.recipe.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * 1件のレシピを1行に保存するドキュメント形式のエンティティ（{@code app.recipe-storage.mode: document} で使用）
+ *
+ * <p>検索・一覧に使う項目は列として持ち、材料・手順・タグ・栄養情報は {@code body}（PostgreSQLでは jsonb）に
+ * まとめて保存します。材料・タグでの絞り込みは {@code body} のGINインデックス（jsonb_path_ops）で行います。</p>
+ */
+@Entity
+@Table(name = "recipe_documents", indexes = {
+    @jakarta.persistence.Index(name = "idx_recipe_document_title", columnList = "title"),
+    @jakarta.persistence.Index(name = "idx_recipe_document_difficulty_time_id", columnList = "difficulty, cooking_time, id"),
+    @jakarta.persistence.Index(name = "uk_recipe_document_content_hash", columnList = "content_hash", unique = true)
+})
+@Data
+public class RecipeDocument {
+    
+    // recipes と同じシーケンスで採番し、保存形式を切り替えてもIDが重ならないようにする
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_document_seq")
+    @SequenceGenerator(name = "recipe_document_seq", sequenceName = "recipe_seq", allocationSize = 50)
+    private Long id;
+    
+    private String title;
+    private String description;
+    private Integer cookingTime;
+    
+    @Enumerated(EnumType.STRING)
+    private Recipe.Difficulty difficulty;
+    
+    private Integer servingSize;
+    private String imageUrl;
+    
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "body", nullable = false)
+    private RecipeBody body;
+    
+    // JPA用の引数なしコンストラクタ
+    public RecipeDocument() {}
+}
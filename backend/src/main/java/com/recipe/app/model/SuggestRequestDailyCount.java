@@ -0,0 +1,50 @@
+package com.recipe.app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 食材・条件の組み合わせごとの日別（UTC）のレシピ提案の受付回数
+ *
+ * <p>事前生成の対象を、直近の期間の受付回数で選ぶために使用します。
+ * リクエストキーは {@link SuggestRequestStat} に保存します。</p>
+ */
+@Entity
+@Table(name = "suggest_request_daily_counts", indexes = {
+    @jakarta.persistence.Index(name = "idx_suggest_request_daily_counts_date", columnList = "request_date")
+})
+@IdClass(SuggestRequestDailyCount.Key.class)
+@Data
+public class SuggestRequestDailyCount {
+    
+    // 正規化したリクエストキー（JSON）のSHA-256
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+    
+    @Id
+    @Column(name = "request_date")
+    private LocalDate requestDate;
+    
+    @Column(name = "request_count", nullable = false)
+    private long requestCount;
+    
+    // JPA用の引数なしコンストラクタ
+    public SuggestRequestDailyCount() {}
+    
+    /**
+     * 複合主キー（組み合わせと日付）
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String keyHash;
+        private LocalDate requestDate;
+    }
+}
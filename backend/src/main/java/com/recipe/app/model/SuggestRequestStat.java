@@ -0,0 +1,38 @@
+package com.recipe.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * 食材・条件の組み合わせごとのレシピ提案の受付回数
+ *
+ * <p>組み合わせのリクエストキーと、累計の受付回数・最後に受け付けた日時を保持します。
+ * 事前生成の対象は、直近の期間の受付回数（{@link SuggestRequestDailyCount}）で選びます。</p>
+ */
+@Entity
+@Table(name = "suggest_request_stats", indexes = {
+    @jakarta.persistence.Index(name = "idx_suggest_request_stats_last_requested", columnList = "last_requested_at")
+})
+@Data
+public class SuggestRequestStat {
+    
+    // 正規化したリクエストキー（JSON）のSHA-256
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+    
+    // 正規化したリクエストキー（JSON）
+    @Column(name = "request_key", nullable = false, columnDefinition = "TEXT")
+    private String requestKey;
+    
+    @Column(name = "request_count", nullable = false)
+    private long requestCount;
+    
+    @Column(name = "last_requested_at", nullable = false)
+    private Instant lastRequestedAt;
+    
+    // JPA用の引数なしコンストラクタ
+    public SuggestRequestStat() {}
+}
@@ -0,0 +1,47 @@
+package com.recipe.app.observability;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * プロンプトやAIの応答など、大きなペイロードをログに出力するかを抽出率で判定するクラス
+ *
+ * <p>ペイロードのログは {@code aws.bedrock.logging.enabled} が有効な場合に、
+ * {@code payload-sample-rate} の割合（0.0〜1.0）のリクエストだけ出力します。
+ * 出力する文字数は {@code max-payload-chars} までに切り詰めます。</p>
+ */
+@Component
+public class PayloadLogSampler {
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int maxChars;
+
+    public PayloadLogSampler(
+            @Value("${aws.bedrock.logging.enabled:false}") boolean enabled,
+            @Value("${aws.bedrock.logging.payload-sample-rate:0.0}") double sampleRate,
+            @Value("${aws.bedrock.logging.max-payload-chars:2000}") int maxChars) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * このリクエストのペイロードをログに出力するかを判定します
+     */
+    public boolean sample() {
+        return enabled && sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * ログに出力する長さに切り詰めます
+     */
+    public String truncate(String payload) {
+        if (payload == null || payload.length() <= maxChars) {
+            return payload;
+        }
+        return payload.substring(0, maxChars) + "...（" + payload.length() + "文字）";
+    }
+}
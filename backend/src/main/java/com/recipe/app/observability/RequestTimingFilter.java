@@ -0,0 +1,69 @@
+package com.recipe.app.observability;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * リクエストIDの付与と、処理段階ごとの時間計測の準備を行うフィルター
+ *
+ * <p>{@code X-Request-Id} ヘッダーがあればその値を、なければ新しいIDをリクエストIDとし、
+ * レスポンスの {@code X-Request-Id} ヘッダーとログのMDC（{@code requestId}）に設定します。
+ * 非同期処理の結果を返すディスパッチでも、同じリクエストIDと計測結果を使います。</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final String TIMINGS_ATTRIBUTE = RequestTimings.class.getName();
+    private static final String MDC_KEY = "requestId";
+
+    // ログに出力するため、呼び出し元から受け取るIDは安全な文字と長さに限る
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = (RequestTimings) request.getAttribute(TIMINGS_ATTRIBUTE);
+        if (timings == null) {
+            timings = new RequestTimings(requestId(request));
+            request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+            response.setHeader(REQUEST_ID_HEADER, timings.requestId());
+        }
+
+        RequestTimings.bind(timings);
+        MDC.put(MDC_KEY, timings.requestId());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+            RequestTimings.unbind();
+        }
+    }
+
+    private static String requestId(HttpServletRequest request) {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId != null && VALID_REQUEST_ID.matcher(requestId).matches()) {
+            return requestId;
+        }
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.recipe.app.observability;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 1つのHTTPリクエストのリクエストIDと、処理段階ごとの所要時間を保持するクラス
+ *
+ * <p>{@link RequestTimingFilter} がリクエストごとに作成し、リクエスト処理スレッドに関連付けます。
+ * 非同期の処理では、リクエスト処理スレッドで {@link #current()} を取得して引き渡してください。
+ * 同じ段階の時間は合計されます（並行して実行された場合は経過時間より大きくなります）。</p>
+ *
+ * <p>このクラスはスレッドセーフです。</p>
+ */
+public final class RequestTimings {
+
+    /** Bedrockの呼び出し */
+    public static final String BEDROCK = "bedrock";
+    /** プロンプトの作成 */
+    public static final String PROMPT = "prompt";
+    /** AIの応答のパース */
+    public static final String PARSE = "parse";
+    /** レシピの保存 */
+    public static final String PERSIST = "persist";
+    /** DBからの読み込み */
+    public static final String DB = "db";
+    /** レスポンスの作成・JSONへの変換 */
+    public static final String SERIALIZE = "serialize";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final String requestId;
+    private final long startNanos;
+    private final Map<String, LongAdder> durations = new ConcurrentHashMap<>();
+
+    RequestTimings(String requestId) {
+        this.requestId = requestId;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 現在のスレッドで処理中のリクエストの計測結果を返します
+     *
+     * @return 計測結果。HTTPリクエストの処理中でない場合はnull
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    static void bind(RequestTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public String requestId() {
+        return requestId;
+    }
+
+    /**
+     * 処理段階の所要時間を加算します
+     *
+     * @param name  処理段階の名前（Server-Timingのメトリクス名）
+     * @param nanos 所要時間（ナノ秒）
+     */
+    public void record(String name, long nanos) {
+        durations.computeIfAbsent(name, key -> new LongAdder()).add(nanos);
+    }
+
+    /**
+     * 処理段階の所要時間を、開始時刻から現在までの時間として加算します
+     *
+     * @param name       処理段階の名前
+     * @param startNanos 開始時の {@link System#nanoTime()}
+     */
+    public void recordSince(String name, long startNanos) {
+        record(name, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * {@code Server-Timing} ヘッダーの値を作成します
+     *
+     * <p>記録した処理段階と、リクエストの受信から現在までの時間（{@code total}）をミリ秒で含みます。</p>
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(96);
+        durations.forEach((name, nanos) -> appendMetric(header, name, nanos.sum()));
+        appendMetric(header, "total", System.nanoTime() - startNanos);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        // 小数第1位まで（マイクロ秒を丸める）
+        long tenthsOfMillis = (nanos + 50_000) / 100_000;
+        header.append(name).append(";dur=").append(tenthsOfMillis / 10).append('.').append(tenthsOfMillis % 10);
+    }
+}
@@ -0,0 +1,135 @@
+package com.recipe.app.pregeneration;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.recipe.app.model.PregeneratedSuggestion;
+import com.recipe.app.repository.PregeneratedSuggestionRepository;
+import com.recipe.app.service.RecipeRequestKey;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 事前生成したレシピ提案を保持し、リクエスト時に返すクラス
+ *
+ * <p>{@code pregenerated_suggestions} の内容をメモリに読み込み、リクエスト時はDBに問い合わせずに参照します。
+ * 他のタスクが生成した分を取り込むため、{@code reload-ms} ごとに読み込み直します。
+ * 生成から {@code max-age-hours} を過ぎた提案は返しません。</p>
+ *
+ * <p>AIの呼び出しが必要だったリクエストのうち、事前生成で返せた割合を
+ * {@code recipe.suggest.pregenerated}（result=hit/miss）で記録します。</p>
+ */
+@Component
+@Lazy(false)
+public class PregeneratedRecipeStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PregeneratedRecipeStore.class);
+
+    private final PregeneratedSuggestionRepository suggestionRepository;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter tokensSaved;
+    private volatile Map<RecipeRequestKey, PregeneratedSuggestion> suggestions = new ConcurrentHashMap<>();
+
+    public PregeneratedRecipeStore(PregeneratedSuggestionRepository suggestionRepository, MeterRegistry meterRegistry,
+            @Value("${app.pregeneration.enabled:false}") boolean enabled,
+            @Value("${app.pregeneration.max-age-hours:48}") long maxAgeHours) {
+        this.suggestionRepository = suggestionRepository;
+        this.enabled = enabled;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.tokensSaved = Counter.builder("recipe.suggest.pregenerated.tokens.saved")
+                .description("事前生成した提案を返したことで省略したBedrockのトークン数（生成時の入力・出力の合計）")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        Gauge.builder("recipe.suggest.pregenerated.entries", this, store -> store.suggestions.size())
+                .description("保持している事前生成の提案の数")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("recipe.suggest.pregenerated")
+                .description("AIの呼び出しが必要なリクエストで事前生成の提案を参照した回数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 事前生成した提案を取得します
+     *
+     * @param key 正規化されたリクエストキー
+     * @return AIが生成したテキスト（レシピのJSONを含む）。事前生成が無効、または存在しない場合はnull
+     */
+    public String get(RecipeRequestKey key) {
+        if (!enabled) {
+            return null;
+        }
+        PregeneratedSuggestion suggestion = suggestions.get(key);
+        if (suggestion == null || isExpired(suggestion, Instant.now())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        tokensSaved.increment(suggestion.getInputTokens() + suggestion.getOutputTokens());
+        return suggestion.getGeneratedText();
+    }
+
+    /**
+     * 指定の時間内に生成した提案があるかを返します
+     */
+    boolean isFresh(RecipeRequestKey key, Duration within) {
+        PregeneratedSuggestion suggestion = suggestions.get(key);
+        return suggestion != null && suggestion.getGeneratedAt().isAfter(Instant.now().minus(within));
+    }
+
+    /**
+     * 生成した提案を追加します（DBへの保存は呼び出し元で行います）
+     */
+    void put(RecipeRequestKey key, PregeneratedSuggestion suggestion) {
+        suggestions.put(key, suggestion);
+    }
+
+    /**
+     * DBから有効期間内の提案を読み込み直します
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.pregeneration.reload-ms:300000}",
+            fixedDelayString = "${app.pregeneration.reload-ms:300000}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<RecipeRequestKey, PregeneratedSuggestion> loaded = new HashMap<>();
+            for (PregeneratedSuggestion suggestion : suggestionRepository.findByGeneratedAtAfter(Instant.now().minus(maxAge))) {
+                loaded.put(RequestKeyCodec.fromJson(suggestion.getRequestKey()), suggestion);
+            }
+            suggestions = new ConcurrentHashMap<>(loaded);
+            log.debug("事前生成の提案を読み込みました: {}件", loaded.size());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("事前生成の提案の読み込みに失敗しました: {}", e.getMessage());
+        }
+    }
+
+    private boolean isExpired(PregeneratedSuggestion suggestion, Instant now) {
+        return suggestion.getGeneratedAt().isBefore(now.minus(maxAge));
+    }
+}
@@ -0,0 +1,288 @@
+package com.recipe.app.pregeneration;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.recipe.app.dto.RecipeRequest;
+import com.recipe.app.model.PregeneratedSuggestion;
+import com.recipe.app.repository.PregeneratedSuggestionRepository;
+import com.recipe.app.repository.SuggestRequestDailyCountRepository;
+import com.recipe.app.repository.SuggestRequestDemand;
+import com.recipe.app.service.BedrockService;
+import com.recipe.app.service.GenerationResult;
+import com.recipe.app.service.RecipeJsonParser;
+import com.recipe.app.service.RecipeRequestKey;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * よく使われる食材・条件の組み合わせのレシピ提案を、アクセスの少ない時間帯に事前生成するクラス
+ *
+ * <p>{@code cron} の時刻に、直近 {@code lookback-days} 日（日別の受付回数の合計、UTCの日付単位）の受付回数が多い組み合わせを最大 {@code top-n} 件選び、
+ * {@link BedrockService} で生成して {@code pregenerated_suggestions} に保存します。</p>
+ * <ul>
+ *   <li>AIの同時呼び出しは {@code concurrency} 件までとし、通常のリクエスト用の枠を残します</li>
+ *   <li>使用したトークン数（入力・出力の合計）が {@code token-budget} に達した時点で新しい呼び出しを止めます
+ *       （実行中の呼び出しの分だけ超えることがあります）</li>
+ *   <li>{@code refresh-hours} 以内に生成済みの組み合わせは、他のタスクが生成したものも含めて生成しません</li>
+ * </ul>
+ */
+@Component
+@Lazy(false)
+public class RecipePregenerationScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipePregenerationScheduler.class);
+
+    private final SuggestRequestDailyCountRepository dailyCountRepository;
+    private final PregeneratedSuggestionRepository suggestionRepository;
+    private final PregeneratedRecipeStore pregeneratedStore;
+    private final BedrockService bedrockService;
+    private final RecipeJsonParser recipeJsonParser;
+    private final Executor recipeTaskExecutor;
+    private final Counter generatedResults;
+    private final Counter skippedResults;
+    private final Counter failedResults;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final boolean enabled;
+    private final int topN;
+    private final Duration lookback;
+    private final long minRequests;
+    private final int concurrency;
+    private final long tokenBudget;
+    private final Duration refreshInterval;
+
+    public RecipePregenerationScheduler(SuggestRequestDailyCountRepository dailyCountRepository,
+            PregeneratedSuggestionRepository suggestionRepository, PregeneratedRecipeStore pregeneratedStore,
+            BedrockService bedrockService, RecipeJsonParser recipeJsonParser,
+            @Qualifier("recipeTaskExecutor") Executor recipeTaskExecutor, MeterRegistry meterRegistry,
+            @Value("${app.pregeneration.enabled:false}") boolean enabled,
+            @Value("${app.pregeneration.top-n:50}") int topN,
+            @Value("${app.pregeneration.lookback-days:14}") long lookbackDays,
+            @Value("${app.pregeneration.min-requests:3}") long minRequests,
+            @Value("${app.pregeneration.concurrency:2}") int concurrency,
+            @Value("${app.pregeneration.token-budget:200000}") long tokenBudget,
+            @Value("${app.pregeneration.refresh-hours:20}") long refreshHours) {
+        this.dailyCountRepository = dailyCountRepository;
+        this.suggestionRepository = suggestionRepository;
+        this.pregeneratedStore = pregeneratedStore;
+        this.bedrockService = bedrockService;
+        this.recipeJsonParser = recipeJsonParser;
+        this.recipeTaskExecutor = recipeTaskExecutor;
+        this.generatedResults = resultCounter(meterRegistry, "generated");
+        this.skippedResults = resultCounter(meterRegistry, "skipped");
+        this.failedResults = resultCounter(meterRegistry, "failed");
+        this.enabled = enabled;
+        this.topN = topN;
+        this.lookback = Duration.ofDays(lookbackDays);
+        this.minRequests = minRequests;
+        this.concurrency = Math.max(1, concurrency);
+        this.tokenBudget = tokenBudget;
+        this.refreshInterval = Duration.ofHours(refreshHours);
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("recipe.pregeneration.results")
+                .description("事前生成の結果ごとの件数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.pregeneration.cron:0 0 4 * * *}", zone = "${app.pregeneration.zone:Asia/Tokyo}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * 事前生成を開始します（実行中の場合は何もしません）
+     *
+     * <p>スケジューラーのスレッドは生成の完了を待たずに戻ります。</p>
+     *
+     * @return すべての生成が終わったときに完了するFuture
+     */
+    public CompletableFuture<Void> run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("事前生成は実行中のためスキップします");
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            Run run = new Run(selectTargets(), System.nanoTime(), generatedResults, skippedResults, failedResults);
+            int workerCount = Math.min(concurrency, run.targets.size());
+            CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+            for (int w = 0; w < workerCount; w++) {
+                workers[w] = generateNext(run);
+            }
+            return CompletableFuture.allOf(workers)
+                    .whenComplete((ignored, error) -> {
+                        running.set(false);
+                        logSummary(run);
+                    });
+        } catch (RuntimeException e) {
+            running.set(false);
+            log.warn("事前生成の対象の取得に失敗しました: {}", e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 受付回数の多い組み合わせのうち、最近生成していないものを選びます
+     */
+    private List<RecipeRequestKey> selectTargets() {
+        LocalDate since = LocalDate.ofInstant(Instant.now().minus(lookback), ZoneOffset.UTC);
+        try {
+            // 集計期間を過ぎた日別の受付回数は使わない
+            dailyCountRepository.deleteByRequestDateBefore(since);
+        } catch (RuntimeException e) {
+            log.warn("古い受付回数の削除に失敗しました: {}", e.getMessage());
+        }
+        List<SuggestRequestDemand> stats = dailyCountRepository.findTopSince(since, minRequests, Limit.of(topN));
+        List<RecipeRequestKey> targets = new ArrayList<>(stats.size());
+        for (SuggestRequestDemand stat : stats) {
+            try {
+                RecipeRequestKey key = RequestKeyCodec.fromJson(stat.getRequestKey());
+                if (!pregeneratedStore.isFresh(key, refreshInterval)) {
+                    targets.add(key);
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("保存されたリクエストキーを読み取れませんでした: {}", stat.getKeyHash());
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * 未着手の組み合わせを1件生成し、完了後に次の組み合わせへ進みます
+     */
+    private CompletableFuture<Void> generateNext(Run run) {
+        if (run.tokensUsed.get() >= tokenBudget) {
+            run.budgetExhausted = true;
+            return CompletableFuture.completedFuture(null);
+        }
+        int index = run.nextIndex.getAndIncrement();
+        if (index >= run.targets.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        RecipeRequestKey key = run.targets.get(index);
+        return generate(key, run)
+                .handle((outcome, error) -> {
+                    if (error != null) {
+                        log.warn("事前生成に失敗しました: {}", error.getMessage());
+                    }
+                    Outcome result = error != null ? run.failed : outcome;
+                    result.counter.incrementAndGet();
+                    result.meter.increment();
+                    return null;
+                })
+                .thenCompose(ignored -> generateNext(run));
+    }
+
+    private CompletableFuture<Outcome> generate(RecipeRequestKey key, Run run) {
+        String requestKey = RequestKeyCodec.toJson(key);
+        String keyHash = RequestKeyCodec.hash(requestKey);
+        Instant freshSince = Instant.now().minus(refreshInterval);
+
+        // 他のタスクが生成済みであれば、その結果を取り込んで呼び出しを省略する
+        return CompletableFuture.supplyAsync(() -> suggestionRepository.findById(keyHash)
+                        .filter(existing -> existing.getGeneratedAt().isAfter(freshSince)), recipeTaskExecutor)
+                .thenCompose(existing -> {
+                    if (existing.isPresent()) {
+                        pregeneratedStore.put(key, existing.get());
+                        return CompletableFuture.completedFuture(run.skipped);
+                    }
+                    RecipeRequest request = key.toRequest();
+                    return bedrockService.generateRecipe(request.getIngredients(), request.getPreferences(), null)
+                            .thenApplyAsync(result -> save(key, requestKey, keyHash, result, run), recipeTaskExecutor);
+                });
+    }
+
+    private Outcome save(RecipeRequestKey key, String requestKey, String keyHash, GenerationResult result, Run run) {
+        run.tokensUsed.addAndGet(result.inputTokens() + result.outputTokens());
+        try {
+            // リクエスト時と同じくパースできるものだけを保存する
+            if (recipeJsonParser.parseRecipes(result.text()).isEmpty()) {
+                return run.failed;
+            }
+        } catch (Exception e) {
+            return run.failed;
+        }
+
+        PregeneratedSuggestion suggestion = new PregeneratedSuggestion();
+        suggestion.setKeyHash(keyHash);
+        suggestion.setRequestKey(requestKey);
+        suggestion.setGeneratedText(result.text());
+        suggestion.setInputTokens(result.inputTokens());
+        suggestion.setOutputTokens(result.outputTokens());
+        suggestion.setGeneratedAt(Instant.now());
+        pregeneratedStore.put(key, suggestionRepository.save(suggestion));
+        return run.generated;
+    }
+
+    private void logSummary(Run run) {
+        log.atInfo().setMessage("事前生成が完了しました")
+                .addKeyValue("targets", run.targets.size())
+                .addKeyValue("generated", run.generated.counter.get())
+                .addKeyValue("skipped", run.skipped.counter.get())
+                .addKeyValue("failed", run.failed.counter.get())
+                .addKeyValue("tokensUsed", run.tokensUsed.get())
+                .addKeyValue("budgetExhausted", run.budgetExhausted)
+                .addKeyValue("elapsedMs", (System.nanoTime() - run.startNanos) / 1_000_000)
+                .log();
+    }
+
+    /**
+     * 1件の生成結果と、その件数
+     */
+    private static final class Outcome {
+        private final Counter meter;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private Outcome(Counter meter) {
+            this.meter = meter;
+        }
+    }
+
+    /**
+     * 1回の事前生成の状態
+     */
+    private static final class Run {
+        private final List<RecipeRequestKey> targets;
+        private final long startNanos;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicLong tokensUsed = new AtomicLong();
+        private final Outcome generated;
+        private final Outcome skipped;
+        private final Outcome failed;
+        private volatile boolean budgetExhausted;
+
+        private Run(List<RecipeRequestKey> targets, long startNanos, Counter generated, Counter skipped,
+                Counter failed) {
+            this.targets = targets;
+            this.startNanos = startNanos;
+            this.generated = new Outcome(generated);
+            this.skipped = new Outcome(skipped);
+            this.failed = new Outcome(failed);
+        }
+    }
+}
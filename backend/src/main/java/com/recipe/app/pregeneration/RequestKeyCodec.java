@@ -0,0 +1,45 @@
+package com.recipe.app.pregeneration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipe.app.service.RecipeRequestKey;
+
+/**
+ * 正規化したリクエストキーとDBに保存する形式（JSONとそのハッシュ）の相互変換
+ */
+final class RequestKeyCodec {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private RequestKeyCodec() {
+    }
+
+    static String toJson(RecipeRequestKey key) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(key);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("リクエストキーの変換に失敗しました", e);
+        }
+    }
+
+    static RecipeRequestKey fromJson(String json) throws JsonProcessingException {
+        return OBJECT_MAPPER.readValue(json, RecipeRequestKey.class);
+    }
+
+    /**
+     * キーのJSONからSHA-256（16進数64文字）を計算します
+     */
+    static String hash(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.recipe.app.pregeneration;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.recipe.app.demand.DemandHeavyHitters;
+import com.recipe.app.repository.SuggestRequestDailyCountRepository;
+import com.recipe.app.repository.SuggestRequestStatRepository;
+import com.recipe.app.service.RecipeRequestKey;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 食材・条件の組み合わせごとのレシピ提案の受付回数を記録するクラス
+ *
+ * <p>リクエストごとにはメモリ上で数えるだけにし、{@code demand-flush-ms} ごとにまとめて
+ * {@code suggest_request_stats}（累計）と {@code suggest_request_daily_counts}（日別、UTC）に加算します。集計中の組み合わせが {@code max-tracked-keys} を
+ * 超えた場合、新しい組み合わせは次の書き込みまで数えません。</p>
+ *
+ * <p>あわせて、食材・組み合わせ・条件ごとの直近の上位（{@link DemandHeavyHitters}）も更新します。</p>
+ */
+@Component
+@Lazy(false)
+public class SuggestDemandTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestDemandTracker.class);
+
+    private final ConcurrentHashMap<RecipeRequestKey, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+    private final SuggestRequestStatRepository statRepository;
+    private final SuggestRequestDailyCountRepository dailyCountRepository;
+    private final DemandHeavyHitters heavyHitters;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxTrackedKeys;
+
+    public SuggestDemandTracker(SuggestRequestStatRepository statRepository,
+            SuggestRequestDailyCountRepository dailyCountRepository, DemandHeavyHitters heavyHitters,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.pregeneration.max-tracked-keys:10000}") int maxTrackedKeys) {
+        this.statRepository = statRepository;
+        this.dailyCountRepository = dailyCountRepository;
+        this.heavyHitters = heavyHitters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    /**
+     * レシピ提案を1回受け付けたことを記録します
+     *
+     * @param key 正規化されたリクエストキー
+     */
+    public void record(RecipeRequestKey key) {
+        heavyHitters.record(key);
+        LongAdder count = pendingCounts.get(key);
+        if (count == null) {
+            if (pendingCounts.size() >= maxTrackedKeys) {
+                return;
+            }
+            count = pendingCounts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * 集計中の受付回数をDBに加算します
+     *
+     * <p>取り出し中に同じ組み合わせへ加算された分は数えられないことがあります（統計用のため許容します）。</p>
+     */
+    @Scheduled(fixedDelayString = "${app.pregeneration.demand-flush-ms:60000}")
+    @PreDestroy
+    public void flush() {
+        if (pendingCounts.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        try {
+            int flushedKeys = transactionTemplate.execute(status -> {
+                int keys = 0;
+                for (RecipeRequestKey key : pendingCounts.keySet()) {
+                    LongAdder count = pendingCounts.remove(key);
+                    long requests = count != null ? count.sum() : 0;
+                    if (requests > 0) {
+                        String requestKey = RequestKeyCodec.toJson(key);
+                        String keyHash = RequestKeyCodec.hash(requestKey);
+                        statRepository.addRequests(keyHash, requestKey, requests, now);
+                        dailyCountRepository.addRequests(keyHash, today, requests);
+                        keys++;
+                    }
+                }
+                return keys;
+            });
+            log.debug("提案の受付回数を記録しました: {}件の組み合わせ", flushedKeys);
+        } catch (RuntimeException e) {
+            log.warn("提案の受付回数の記録に失敗しました: {}", e.getMessage());
+        }
+    }
+}
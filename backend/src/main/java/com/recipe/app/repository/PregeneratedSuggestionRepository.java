@@ -0,0 +1,15 @@
+package com.recipe.app.repository;
+
+import com.recipe.app.model.PregeneratedSuggestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PregeneratedSuggestionRepository extends JpaRepository<PregeneratedSuggestion, String> {
+    
+    // 指定日時以降に生成した提案を取得
+    List<PregeneratedSuggestion> findByGeneratedAtAfter(Instant since);
+}
@@ -0,0 +1,43 @@
+package com.recipe.app.repository;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.model.RecipeDocument;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecipeDocumentRepository extends JpaRepository<RecipeDocument, Long> {
+    
+    // ID順に指定件数ずつ取得（インデックス構築などの全件走査用）
+    List<RecipeDocument> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    // 内容の指紋で保存済みのレシピを取得（重複保存の防止用）
+    List<RecipeDocument> findByContentHashIn(Collection<String> contentHashes);
+    
+    // bodyが指定のJSONを含むレシピのIDを取得（IDの順にキーセットページング、GINインデックスを使用）
+    // 例: {"tags":["和食"]}、{"ingredients":[{"name":"卵"}]}
+    @Query(value = "SELECT id FROM recipe_documents WHERE body @> CAST(:containment AS jsonb) AND id > :afterId "
+            + "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByBodyContaining(String containment, long afterId, int limit);
+    
+    // 難易度・調理時間で一覧取得（調理時間・IDの順にキーセットページング）
+    @Query("SELECT d.id AS id, d.title AS title, d.description AS description, d.cookingTime AS cookingTime, "
+            + "d.difficulty AS difficulty, d.servingSize AS servingSize FROM RecipeDocument d "
+            + "WHERE d.difficulty = :difficulty AND d.cookingTime <= :maxCookingTime "
+            + "AND d.cookingTime >= :afterCookingTime "  // インデックスの範囲の下限（行値の比較が使えないため重複して指定する）
+            + "AND (d.cookingTime > :afterCookingTime OR (d.cookingTime = :afterCookingTime AND d.id > :afterId)) "
+            + "ORDER BY d.cookingTime ASC, d.id ASC")
+    List<RecipeSummary> findSummariesByDifficulty(Recipe.Difficulty difficulty, int maxCookingTime,
+            int afterCookingTime, long afterId, Limit limit);
+    
+    // IDを指定して概要を取得（ID順）
+    @Query("SELECT d.id AS id, d.title AS title, d.description AS description, d.cookingTime AS cookingTime, "
+            + "d.difficulty AS difficulty, d.servingSize AS servingSize FROM RecipeDocument d "
+            + "WHERE d.id IN :ids ORDER BY d.id ASC")
+    List<RecipeSummary> findSummariesByIdIn(Collection<Long> ids);
+}
@@ -1,11 +1,15 @@
 package com.recipe.app.repository;
 
 import com.recipe.app.model.Recipe;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
@@ -16,10 +20,47 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     // 調理時間と難易度で検索
     List<Recipe> findByCookingTimeLessThanEqualAndDifficulty(int cookingTime, Recipe.Difficulty difficulty);
     
-    // 特定の食材を含むレシピを検索
-    @Query("SELECT r FROM Recipe r JOIN r.ingredients i WHERE i.name IN :ingredients")
+    // 特定の食材を含むレシピを検索（複数の食材が一致しても1件として返す）
+    @Query("SELECT DISTINCT r FROM Recipe r JOIN r.ingredients i WHERE i.name IN :ingredients")
     List<Recipe> findByIngredientsNameIn(List<String> ingredients);
     
-    // タグで検索
+    // タグで検索（同じタグが重複していても1件として返す）
+    @Query("SELECT DISTINCT r FROM Recipe r JOIN r.tags t WHERE t = :tag")
     List<Recipe> findByTagsContaining(String tag);
+    
+    // ID順に指定件数ずつ取得（インデックス構築などの全件走査用）
+    List<Recipe> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    // IDを指定してまとめて取得（コレクションはバッチフェッチで取得）
+    List<Recipe> findByIdIn(Collection<Long> ids);
+    
+    // 内容の指紋で保存済みのレシピを取得（重複保存の防止用）
+    List<Recipe> findByContentHashIn(Collection<String> contentHashes);
+    
+    // 難易度・調理時間で一覧取得（調理時間・IDの順にキーセットページング）
+    @Query("SELECT r.id AS id, r.title AS title, r.description AS description, r.cookingTime AS cookingTime, "
+            + "r.difficulty AS difficulty, r.servingSize AS servingSize FROM Recipe r "
+            + "WHERE r.difficulty = :difficulty AND r.cookingTime <= :maxCookingTime "
+            + "AND r.cookingTime >= :afterCookingTime "  // インデックスの範囲の下限（行値の比較が使えないため重複して指定する）
+            + "AND (r.cookingTime > :afterCookingTime OR (r.cookingTime = :afterCookingTime AND r.id > :afterId)) "
+            + "ORDER BY r.cookingTime ASC, r.id ASC")
+    List<RecipeSummary> findSummariesByDifficulty(Recipe.Difficulty difficulty, int maxCookingTime,
+            int afterCookingTime, long afterId, Limit limit);
+    
+    // タグで一覧取得（IDの順にキーセットページング）
+    @Query("SELECT DISTINCT r.id AS id, r.title AS title, r.description AS description, r.cookingTime AS cookingTime, "
+            + "r.difficulty AS difficulty, r.servingSize AS servingSize FROM Recipe r JOIN r.tags t "
+            + "WHERE t = :tag AND r.id > :afterId ORDER BY r.id ASC")
+    List<RecipeSummary> findSummariesByTag(String tag, long afterId, Limit limit);
+    
+    // 材料名で一覧取得（IDの順にキーセットページング）
+    @Query("SELECT DISTINCT r.id AS id, r.title AS title, r.description AS description, r.cookingTime AS cookingTime, "
+            + "r.difficulty AS difficulty, r.servingSize AS servingSize FROM Recipe r JOIN r.ingredients i "
+            + "WHERE i.name = :ingredient AND r.id > :afterId ORDER BY r.id ASC")
+    List<RecipeSummary> findSummariesByIngredient(String ingredient, long afterId, Limit limit);
+    
+    // 詳細取得では材料を同時に取得する（手順・タグは別クエリ）
+    @Override
+    @EntityGraph(attributePaths = "ingredients")
+    Optional<Recipe> findById(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.recipe.app.repository;
+
+import com.recipe.app.model.Recipe;
+
+/**
+ * 一覧表示用のレシピの概要（材料・手順・タグのテーブルを読み込まない射影）
+ */
+public interface RecipeSummary {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    Integer getCookingTime();
+
+    Recipe.Difficulty getDifficulty();
+
+    Integer getServingSize();
+}
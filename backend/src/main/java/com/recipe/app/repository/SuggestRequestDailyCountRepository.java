@@ -0,0 +1,41 @@
+package com.recipe.app.repository;
+
+import com.recipe.app.model.SuggestRequestDailyCount;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SuggestRequestDailyCountRepository
+        extends JpaRepository<SuggestRequestDailyCount, SuggestRequestDailyCount.Key> {
+    
+    // 日別の受付回数を加算する（複数のタスクから同時に加算しても失われないよう、1文でUPSERTする）
+    @Modifying
+    @Query(value = "INSERT INTO suggest_request_daily_counts (key_hash, request_date, request_count) "
+            + "VALUES (:keyHash, :requestDate, :count) "
+            + "ON CONFLICT (key_hash, request_date) DO UPDATE SET "
+            + "request_count = suggest_request_daily_counts.request_count + EXCLUDED.request_count",
+            nativeQuery = true)
+    void addRequests(String keyHash, LocalDate requestDate, long count);
+    
+    // 指定日以降の受付回数の合計が多い順に組み合わせを取得
+    @Query("SELECT s.keyHash AS keyHash, s.requestKey AS requestKey, SUM(d.requestCount) AS requestCount "
+            + "FROM SuggestRequestDailyCount d JOIN SuggestRequestStat s ON s.keyHash = d.keyHash "
+            + "WHERE d.requestDate >= :since "
+            + "GROUP BY s.keyHash, s.requestKey "
+            + "HAVING SUM(d.requestCount) >= :minRequestCount "
+            + "ORDER BY SUM(d.requestCount) DESC, s.keyHash ASC")
+    List<SuggestRequestDemand> findTopSince(LocalDate since, long minRequestCount, Limit limit);
+    
+    // 集計期間を過ぎた日別の受付回数を削除
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SuggestRequestDailyCount d WHERE d.requestDate < :before")
+    int deleteByRequestDateBefore(LocalDate before);
+}
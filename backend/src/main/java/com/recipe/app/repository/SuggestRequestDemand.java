@@ -0,0 +1,13 @@
+package com.recipe.app.repository;
+
+/**
+ * 食材・条件の組み合わせと、集計期間内の受付回数（事前生成の対象の選定用の射影）
+ */
+public interface SuggestRequestDemand {
+
+    String getKeyHash();
+
+    String getRequestKey();
+
+    Long getRequestCount();
+}
@@ -0,0 +1,23 @@
+package com.recipe.app.repository;
+
+import com.recipe.app.model.SuggestRequestStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface SuggestRequestStatRepository extends JpaRepository<SuggestRequestStat, String> {
+    
+    // 受付回数を加算する（複数のタスクから同時に加算しても失われないよう、1文でUPSERTする）
+    @Modifying
+    @Query(value = "INSERT INTO suggest_request_stats (key_hash, request_key, request_count, last_requested_at) "
+            + "VALUES (:keyHash, :requestKey, :count, :requestedAt) "
+            + "ON CONFLICT (key_hash) DO UPDATE SET "
+            + "request_count = suggest_request_stats.request_count + EXCLUDED.request_count, "
+            + "last_requested_at = GREATEST(suggest_request_stats.last_requested_at, EXCLUDED.last_requested_at)",
+            nativeQuery = true)
+    void addRequests(String keyHash, String requestKey, long count, Instant requestedAt);
+}
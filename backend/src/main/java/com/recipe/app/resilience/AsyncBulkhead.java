@@ -0,0 +1,168 @@
+package com.recipe.app.resilience;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 非同期処理の同時実行数を制限するバルクヘッド
+ *
+ * <p>実行中の処理が上限に達している場合、呼び出しは上限付きの待ち行列に入り、
+ * 実行中の処理が完了した順に開始されます。待ち行列が満杯の場合や、
+ * 待ち時間の上限までに開始できなかった場合は {@link BulkheadFullException} で失敗します。
+ * 待機中もスレッドはブロックしません。</p>
+ *
+ * <p>このクラスはスレッドセーフです。</p>
+ */
+public class AsyncBulkhead {
+
+    private final int maxConcurrentCalls;
+    private final int maxQueueSize;
+    private final Duration maxQueueWait;
+    private final Duration retryAfter;
+    private final LongConsumer queueWaitRecorder;
+
+    private final Deque<Waiter<?>> queue = new ArrayDeque<>();
+    private int activeCalls;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param maxConcurrentCalls 同時に実行できる処理の数
+     * @param maxQueueSize       待ち行列に入れる呼び出しの数
+     * @param maxQueueWait       待ち行列での最大待ち時間
+     * @param retryAfter         拒否した呼び出し元に返す再試行までの目安の時間
+     * @param queueWaitRecorder  開始した処理ごとの待ち時間（ナノ秒）を受け取る処理
+     */
+    public AsyncBulkhead(int maxConcurrentCalls, int maxQueueSize, Duration maxQueueWait, Duration retryAfter,
+            LongConsumer queueWaitRecorder) {
+        if (maxConcurrentCalls < 1 || maxQueueSize < 0) {
+            throw new IllegalArgumentException("同時実行数は1以上、待ち行列の長さは0以上を指定してください");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWait = maxQueueWait;
+        this.retryAfter = retryAfter;
+        this.queueWaitRecorder = queueWaitRecorder;
+    }
+
+    /**
+     * 同時実行数の枠が空いていれば処理を開始し、空いていなければ待ち行列に入れます
+     *
+     * @param call 非同期処理を開始する処理
+     * @return 処理結果で完了するFuture。拒否された場合は {@link BulkheadFullException} で完了します
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        Waiter<T> waiter;
+        synchronized (this) {
+            if (activeCalls < maxConcurrentCalls) {
+                activeCalls++;
+                waiter = null;
+            } else if (queue.size() < maxQueueSize) {
+                waiter = new Waiter<>(call, System.nanoTime());
+                queue.addLast(waiter);
+            } else {
+                rejected.increment();
+                return CompletableFuture.failedFuture(
+                        new BulkheadFullException("処理が混み合っています。しばらくしてから再度お試しください", retryAfter));
+            }
+        }
+
+        if (waiter == null) {
+            queueWaitRecorder.accept(0);
+            return start(call);
+        }
+
+        // 待ち時間の上限までに順番が来なければ拒否する
+        CompletableFuture.delayedExecutor(maxQueueWait.toNanos(), TimeUnit.NANOSECONDS)
+                .execute(() -> expire(waiter));
+        return waiter.result;
+    }
+
+    private <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException | Error e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> release());
+        return future;
+    }
+
+    /**
+     * 完了した処理の枠を、待ち行列の先頭の呼び出しに引き継ぎます
+     */
+    private void release() {
+        Waiter<?> next;
+        synchronized (this) {
+            do {
+                next = queue.pollFirst();
+            } while (next != null && next.result.isDone()); // 呼び出し元がキャンセル済みの場合は飛ばす
+
+            if (next == null) {
+                activeCalls--;
+                return;
+            }
+        }
+        queueWaitRecorder.accept(System.nanoTime() - next.enqueuedAt);
+        next.run();
+    }
+
+    private void expire(Waiter<?> waiter) {
+        synchronized (this) {
+            if (!queue.remove(waiter)) {
+                return;
+            }
+            rejected.increment();
+        }
+        waiter.result.completeExceptionally(
+                new BulkheadFullException("処理待ちの時間が上限を超えました。しばらくしてから再度お試しください", retryAfter));
+    }
+
+    /**
+     * 実行中の処理の数
+     */
+    public synchronized int activeCount() {
+        return activeCalls;
+    }
+
+    /**
+     * 待ち行列に入っている呼び出しの数
+     */
+    public synchronized int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * 拒否した呼び出しの回数（待ち行列が満杯・待ち時間の超過）
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private final class Waiter<T> {
+        private final Supplier<CompletableFuture<T>> call;
+        private final long enqueuedAt;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Waiter(Supplier<CompletableFuture<T>> call, long enqueuedAt) {
+            this.call = call;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private void run() {
+            start(call).whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+    }
+}
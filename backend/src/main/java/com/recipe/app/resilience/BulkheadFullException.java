@@ -0,0 +1,27 @@
+package com.recipe.app.resilience;
+
+import java.time.Duration;
+
+/**
+ * 同時実行数の上限に達し、待ち行列にも入れなかった（または待ち時間の上限を超えた）ことを表す例外
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * @param message    エラーメッセージ
+     * @param retryAfter 再試行までの目安の時間
+     */
+    public BulkheadFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * 再試行までの目安の時間
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,11 @@
+package com.recipe.app.resilience;
+
+/**
+ * サーキットブレーカーが開いているため、呼び出しを行わなかったことを表す例外
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,228 @@
+package com.recipe.app.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 非同期処理のサーキットブレーカー
+ *
+ * <p>直近 {@code windowSize} 件の呼び出しのうち、失敗または遅延（{@code slowCallThreshold} 以上）の
+ * 割合がしきい値を超えると開き（OPEN）、{@code openDuration} の間は呼び出しを行わずに
+ * {@link CallNotPermittedException} で即座に失敗させます。その後は半開き（HALF_OPEN）になり、
+ * 試行呼び出しがすべて成功すれば閉じ（CLOSED）、1件でも失敗・遅延すれば再び開きます。</p>
+ *
+ * <p>このクラスはスレッドセーフです。</p>
+ */
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * サーキットブレーカーの状態
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationNanos;
+    private final int halfOpenTrialCalls;
+    private final BiConsumer<State, State> transitionListener;
+
+    // 直近の呼び出し結果（リングバッファ）
+    private final byte[] outcomes;
+    private int nextOutcome;
+    private int recordedCalls;
+    private int failedCalls;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialCallsStarted;
+    private int trialCallsSucceeded;
+    private final LongAdder notPermitted = new LongAdder();
+
+    /**
+     * @param name                  ログに出力する名前
+     * @param windowSize            失敗率を計算する直近の呼び出し数
+     * @param minimumCalls          失敗率を判定するのに必要な最小の呼び出し数
+     * @param failureRateThreshold  開く失敗率（%）
+     * @param slowCallThreshold     遅延とみなす所要時間
+     * @param slowCallRateThreshold 開く遅延率（%）
+     * @param openDuration          開いてから半開きになるまでの時間
+     * @param halfOpenTrialCalls    半開きの状態で試行する呼び出しの数
+     * @param transitionListener    状態の遷移（遷移前・遷移後）を受け取る処理
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+            Duration slowCallThreshold, int slowCallRateThreshold, Duration openDuration, int halfOpenTrialCalls,
+            BiConsumer<State, State> transitionListener) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenTrialCalls < 1) {
+            throw new IllegalArgumentException("サーキットブレーカーの設定が不正です");
+        }
+        this.name = name;
+        this.outcomes = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenTrialCalls = halfOpenTrialCalls;
+        this.transitionListener = transitionListener;
+    }
+
+    /**
+     * 呼び出しが許可されていれば処理を開始し、結果と所要時間を記録します
+     *
+     * @param call 非同期処理を開始する処理
+     * @return 処理結果で完了するFuture。開いている場合は {@link CallNotPermittedException} で完了します
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        if (!tryAcquirePermission()) {
+            notPermitted.increment();
+            return CompletableFuture.failedFuture(
+                    new CallNotPermittedException(name + "の呼び出しを一時的に停止しています（サーキットブレーカー作動中）"));
+        }
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException | Error e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((value, error) -> {
+            // 呼び出し元によるキャンセルは呼び出し先の障害ではないため、失敗として数えない
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            onComplete(System.nanoTime() - startNanos, error != null && !(cause instanceof CancellationException));
+        });
+    }
+
+    private boolean tryAcquirePermission() {
+        State from = null;
+        boolean permitted;
+        synchronized (this) {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+                from = transitionTo(State.HALF_OPEN);
+            }
+            switch (state) {
+                case CLOSED:
+                    permitted = true;
+                    break;
+                case HALF_OPEN:
+                    permitted = trialCallsStarted < halfOpenTrialCalls;
+                    if (permitted) {
+                        trialCallsStarted++;
+                    }
+                    break;
+                default:
+                    permitted = false;
+                    break;
+            }
+        }
+        notifyTransition(from, State.HALF_OPEN);
+        return permitted;
+    }
+
+    private void onComplete(long durationNanos, boolean failed) {
+        boolean slow = durationNanos >= slowCallThresholdNanos;
+        State from = null;
+        State to = null;
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                if (failed || slow) {
+                    to = State.OPEN;
+                } else if (++trialCallsSucceeded >= halfOpenTrialCalls) {
+                    to = State.CLOSED;
+                }
+            } else if (state == State.CLOSED) {
+                record((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+                if (recordedCalls >= minimumCalls
+                        && (failedCalls * 100 >= failureRateThreshold * recordedCalls
+                                || slowCalls * 100 >= slowCallRateThreshold * recordedCalls)) {
+                    to = State.OPEN;
+                }
+            }
+            // 開いている間に完了した（開く前に開始された）呼び出しは記録しない
+
+            if (to != null) {
+                from = transitionTo(to);
+            }
+        }
+        notifyTransition(from, to);
+    }
+
+    private void record(byte outcome) {
+        if (recordedCalls == outcomes.length) {
+            byte evicted = outcomes[nextOutcome];
+            failedCalls -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextOutcome] = outcome;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+        failedCalls += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    /**
+     * 状態を遷移させ、遷移前の状態を返します（呼び出し元でロックを保持していること）
+     */
+    private State transitionTo(State to) {
+        State from = state;
+        state = to;
+        if (to == State.OPEN) {
+            openedAt = System.nanoTime();
+        } else if (to == State.HALF_OPEN) {
+            trialCallsStarted = 0;
+            trialCallsSucceeded = 0;
+        }
+        // 閉じる・開くたびに直近の結果を捨て、新しい状態での結果だけで判定する
+        recordedCalls = 0;
+        nextOutcome = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+        return from;
+    }
+
+    private void notifyTransition(State from, State to) {
+        if (from == null) {
+            return;
+        }
+        log.atWarn().setMessage("サーキットブレーカーの状態が変化しました")
+                .addKeyValue("circuitBreaker", name)
+                .addKeyValue("from", from)
+                .addKeyValue("to", to)
+                .log();
+        transitionListener.accept(from, to);
+    }
+
+    /**
+     * 現在の状態
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 開いていたために呼び出しを行わなかった回数
+     */
+    public long notPermittedCount() {
+        return notPermitted.sum();
+    }
+}
@@ -0,0 +1,260 @@
+package com.recipe.app.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.recipe.app.model.Ingredient;
+import com.recipe.app.model.Recipe;
+import com.recipe.app.service.RecipeRequestKey;
+
+/**
+ * 食材名からレシピを引くためのメモリ上の転置インデックス
+ *
+ * <p>レシピごとに連番（序数）を割り当て、食材名ごとにその食材を使うレシピの序数を
+ * {@link BitSet} で保持します。手持ちの食材だけで作れるレシピの検索と、
+ * 一致する食材の多い順の検索に使用します。</p>
+ *
+ * <p>塩・醤油などの基本調味料（{@code app.pantry.staple-ingredients}）は常に手元にあるものとして扱い、
+ * 必要な食材の数に含めません。基本調味料だけで作れるレシピは、どの手持ちの食材でも作れるものとして返します。</p>
+ *
+ * <p>インデックスはタスク（JVM）ごとに持つため、他のタスクが保存したレシピは
+ * {@link RecipeIndexInitializer} の定期的な再読み込みまで反映されません。</p>
+ */
+@Component
+public class IngredientIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Set<String> stapleIngredients;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 食材名 → その食材を使うレシピの序数
+    private final Map<String, BitSet> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalsByRecipeId = new HashMap<>();
+    // 基本調味料以外の材料を使わない（どの食材の転置リストにも含まれない）レシピの序数
+    private final BitSet stapleOnly = new BitSet();
+
+    // 序数ごとのレシピ情報
+    private long[] recipeIds = new long[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private int[] requiredCounts = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // 検索ごとの一致数の集計に使う作業領域（スレッドごとに再利用）
+    private final ThreadLocal<int[]> scratchCounts = ThreadLocal.withInitial(() -> new int[INITIAL_CAPACITY]);
+
+    public IngredientIndex(@Value("${app.pantry.staple-ingredients:}") List<String> stapleIngredients) {
+        Set<String> staples = new LinkedHashSet<>();
+        for (String staple : stapleIngredients) {
+            String normalized = RecipeRequestKey.normalize(staple);
+            if (normalized != null) {
+                staples.add(normalized);
+            }
+        }
+        this.stapleIngredients = Set.copyOf(staples);
+    }
+
+    /**
+     * レシピをインデックスに追加します。すでに追加済みのレシピは無視します
+     *
+     * @param recipe 保存済みのレシピ（材料が読み込める状態であること）
+     */
+    public void add(Recipe recipe) {
+        if (recipe.getId() == null || contains(recipe.getId())) {
+            return;
+        }
+        Set<String> names = requiredIngredientNames(recipe);
+
+        lock.writeLock().lock();
+        try {
+            if (ordinalsByRecipeId.containsKey(recipe.getId())) {
+                return;
+            }
+            int ordinal = size++;
+            ensureCapacity(size);
+            recipeIds[ordinal] = recipe.getId();
+            titles[ordinal] = recipe.getTitle();
+            requiredCounts[ordinal] = names.size();
+            ordinalsByRecipeId.put(recipe.getId(), ordinal);
+            for (String name : names) {
+                postings.computeIfAbsent(name, key -> new BitSet()).set(ordinal);
+            }
+            if (names.isEmpty()) {
+                stapleOnly.set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 手持ちの食材（と基本調味料）だけで作れるレシピを検索します
+     *
+     * @param pantry 手持ちの食材
+     * @param limit  最大件数
+     * @return 作れるレシピ（必要な食材の多い順）
+     */
+    public List<PantryMatch> findMakeable(Collection<String> pantry, int limit) {
+        return search(pantry, limit, true);
+    }
+
+    /**
+     * 手持ちの食材と一致する材料の多い順にレシピを検索します
+     *
+     * @param pantry 手持ちの食材
+     * @param limit  最大件数
+     * @return 一致する材料の数、足りない材料の少なさの順に並べたレシピ
+     */
+    public List<PantryMatch> findTopByOverlap(Collection<String> pantry, int limit) {
+        return search(pantry, limit, false);
+    }
+
+    private boolean contains(long recipeId) {
+        lock.readLock().lock();
+        try {
+            return ordinalsByRecipeId.containsKey(recipeId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * インデックスに登録されているレシピの数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<PantryMatch> search(Collection<String> pantry, int limit, boolean makeableOnly) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String item : pantry) {
+            String normalized = RecipeRequestKey.normalize(item);
+            if (normalized != null && !stapleIngredients.contains(normalized)) {
+                names.add(normalized);
+            }
+        }
+
+        // 上位limit件のみを保持する（先頭が最も順位の低いもの）
+        PriorityQueue<PantryMatch> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+
+        lock.readLock().lock();
+        try {
+            int[] counts = scratchCounts.get();
+            if (counts.length < size) {
+                counts = new int[recipeIds.length];
+                scratchCounts.set(counts);
+            }
+
+            // 手持ちの食材ごとに、その食材を使うレシピの一致数を加算する
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            for (String name : names) {
+                BitSet posting = postings.get(name);
+                if (posting == null) {
+                    continue;
+                }
+                for (int ordinal = posting.nextSetBit(0); ordinal >= 0; ordinal = posting.nextSetBit(ordinal + 1)) {
+                    if (counts[ordinal]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = ordinal;
+                    }
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                int matched = counts[ordinal];
+                counts[ordinal] = 0;
+                if (makeableOnly && matched < requiredCounts[ordinal]) {
+                    continue;
+                }
+                top.offer(new PantryMatch(recipeIds[ordinal], titles[ordinal], matched, requiredCounts[ordinal]));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            // 基本調味料だけで作れるレシピは転置リストに現れないため、別に加える
+            if (makeableOnly) {
+                for (int ordinal = stapleOnly.nextSetBit(0); ordinal >= 0; ordinal = stapleOnly.nextSetBit(ordinal + 1)) {
+                    top.offer(new PantryMatch(recipeIds[ordinal], titles[ordinal], 0, 0));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<PantryMatch> result = new ArrayList<>(top);
+        result.sort(RANKING);
+        return result;
+    }
+
+    private Set<String> requiredIngredientNames(Recipe recipe) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            String normalized = RecipeRequestKey.normalize(ingredient.getName());
+            if (normalized != null && !stapleIngredients.contains(normalized)) {
+                names.add(normalized);
+            }
+        }
+        return names;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= recipeIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, recipeIds.length * 2);
+        recipeIds = Arrays.copyOf(recipeIds, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        requiredCounts = Arrays.copyOf(requiredCounts, capacity);
+    }
+
+    // 一致数の多い順 → 足りない材料の少ない順 → 新しいレシピ順
+    private static final Comparator<PantryMatch> RANKING = Comparator
+            .comparingInt(PantryMatch::matchedCount).reversed()
+            .thenComparingInt(PantryMatch::missingCount)
+            .thenComparing(Comparator.comparingLong(PantryMatch::recipeId).reversed());
+
+    /**
+     * 手持ちの食材との一致結果
+     *
+     * @param recipeId      レシピID
+     * @param title         レシピタイトル
+     * @param matchedCount  手持ちの食材と一致した材料の数
+     * @param requiredCount 必要な材料の数（基本調味料を除く）
+     */
+    public record PantryMatch(long recipeId, String title, int matchedCount, int requiredCount) {
+
+        public int missingCount() {
+            return requiredCount - matchedCount;
+        }
+    }
+}
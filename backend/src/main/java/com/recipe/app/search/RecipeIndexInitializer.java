@@ -0,0 +1,136 @@
+package com.recipe.app.search;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.service.RecipeStore;
+import com.recipe.app.service.RecipesSavedEvent;
+
+/**
+ * 検索用のインデックスを構築・更新するクラス
+ *
+ * <p>起動完了後に保存済みのレシピをID順に読み込んでインデックスを構築し（起動は待たせない）、
+ * 以降は {@link RecipesSavedEvent} を受けて新しいレシピを追加します。</p>
+ *
+ * <p>イベントは同じタスク（JVM）で保存したレシピにしか届かないため、{@code app.search.index-refresh-ms} ごとに
+ * 前回までに読み込んだIDより後のレシピを読み込み、他のタスクが保存したレシピを追加します。
+ * IDはタスクごとにまとめて採番され、保存順とは一致しないため、前回のIDから
+ * {@code app.search.index-refresh-overlap-ids} だけ手前から読み直します（それより前に遅れて保存されたレシピは、
+ * 再起動時の構築まで検索の対象になりません）。読み込みはレシピ処理用のスレッドで行い、スケジューラーのスレッドを占有しません。</p>
+ */
+@Component
+@Lazy(false)
+public class RecipeIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeIndexInitializer.class);
+
+    private final RecipeStore recipeStore;
+    private final IngredientIndex ingredientIndex;
+    private final RecipeTextIndex recipeTextIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor recipeTaskExecutor;
+    private final int batchSize;
+    private final long refreshOverlapIds;
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    // 読み込み済みの最大のID（loading を取得したスレッドのみ読み書きする）
+    private long loadedThroughId;
+
+    public RecipeIndexInitializer(RecipeStore recipeStore, IngredientIndex ingredientIndex,
+            RecipeTextIndex recipeTextIndex, PlatformTransactionManager transactionManager,
+            @Qualifier("recipeTaskExecutor") Executor recipeTaskExecutor,
+            @Value("${app.search.index-load-batch-size:500}") int batchSize,
+            @Value("${app.search.index-refresh-overlap-ids:500}") long refreshOverlapIds) {
+        this.recipeStore = recipeStore;
+        this.ingredientIndex = ingredientIndex;
+        this.recipeTextIndex = recipeTextIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.recipeTaskExecutor = recipeTaskExecutor;
+        this.batchSize = batchSize;
+        this.refreshOverlapIds = refreshOverlapIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        recipeTaskExecutor.execute(this::loadNewRecipes);
+    }
+
+    /**
+     * 他のタスクが保存したレシピを取り込むため、前回読み込んだ位置以降のレシピを読み込みます
+     */
+    @Scheduled(fixedDelayString = "${app.search.index-refresh-ms:600000}",
+            initialDelayString = "${app.search.index-refresh-ms:600000}")
+    public void refreshIndexes() {
+        recipeTaskExecutor.execute(this::loadNewRecipes);
+    }
+
+    /**
+     * 保存されたレシピをインデックスに追加します（コミット後に実行）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesSaved(RecipesSavedEvent event) {
+        for (Recipe recipe : event.recipes()) {
+            indexRecipe(recipe);
+        }
+    }
+
+    private void loadNewRecipes() {
+        // 起動時の構築と定期的な読み込みを重ねて実行しない
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        int sizeBefore = ingredientIndex.size();
+        long fromId = Math.max(0, loadedThroughId - refreshOverlapIds);
+        long lastId = fromId;
+        int loaded = 0;
+        try {
+            while (true) {
+                long afterId = lastId;
+                // ページごとにトランザクションを分け、読み込んだエンティティを保持し続けない
+                List<Recipe> page = transactionTemplate.execute(status -> {
+                    List<Recipe> recipes = recipeStore.findByIdGreaterThanOrderByIdAsc(afterId, batchSize);
+                    recipes.forEach(this::indexRecipe);
+                    return recipes;
+                });
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+                loaded += page.size();
+                lastId = page.get(page.size() - 1).getId();
+                loadedThroughId = Math.max(loadedThroughId, lastId);
+            }
+            log.atInfo().setMessage("検索インデックスを更新しました")
+                    .addKeyValue("afterId", fromId)
+                    .addKeyValue("recipes", loaded)
+                    .addKeyValue("added", ingredientIndex.size() - sizeBefore)
+                    .addKeyValue("elapsedMs", System.currentTimeMillis() - startTime)
+                    .log();
+        } catch (Exception e) {
+            log.error("検索インデックスの更新に失敗しました", e);
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    private void indexRecipe(Recipe recipe) {
+        ingredientIndex.add(recipe);
+        recipeTextIndex.add(recipe);
+    }
+}
@@ -0,0 +1,309 @@
+package com.recipe.app.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.service.RecipeRequestKey;
+
+/**
+ * レシピのタイトル・説明・手順を対象にしたメモリ上のN-gram全文検索インデックス
+ *
+ * <p>日本語は単語の区切りがないため、文字のバイグラム（2文字ずつ）を検索語として扱います。
+ * 検索語ごとに、その語を含むレシピの序数（昇順）と出現箇所に応じた重みを保持し、
+ * 検索時は最も短いポスティングリストから順に積集合をとるため、
+ * レシピ件数が増えても検索語の出現件数に比例した時間で検索できます。</p>
+ */
+@Component
+public class RecipeTextIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // フィールドごとの重み（タイトルに一致するレシピを上位にする）
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int INSTRUCTION_WEIGHT = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalsByRecipeId = new HashMap<>();
+
+    private long[] recipeIds = new long[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * レシピをインデックスに追加します。すでに追加済みのレシピは無視します
+     *
+     * @param recipe 保存済みのレシピ（手順が読み込める状態であること）
+     */
+    public void add(Recipe recipe) {
+        if (recipe.getId() == null || contains(recipe.getId())) {
+            return;
+        }
+        Map<String, Integer> termWeights = new HashMap<>();
+        addTerms(termWeights, recipe.getTitle(), TITLE_WEIGHT);
+        addTerms(termWeights, recipe.getDescription(), DESCRIPTION_WEIGHT);
+        for (String instruction : recipe.getInstructions()) {
+            addTerms(termWeights, instruction, INSTRUCTION_WEIGHT);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (ordinalsByRecipeId.containsKey(recipe.getId())) {
+                return;
+            }
+            int ordinal = size++;
+            ensureCapacity(size);
+            recipeIds[ordinal] = recipe.getId();
+            titles[ordinal] = recipe.getTitle();
+            descriptions[ordinal] = recipe.getDescription();
+            ordinalsByRecipeId.put(recipe.getId(), ordinal);
+            // 序数は増加する一方のため、各ポスティングリストは昇順のまま保たれる
+            termWeights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new Postings()).add(ordinal, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * キーワードに一致するレシピを関連度順に検索します
+     *
+     * <p>キーワードのすべてのバイグラムを含むレシピを対象とし、
+     * 出現箇所の重みと検索語の希少さ（IDF）から関連度を計算します。</p>
+     *
+     * @param query キーワード（2文字以上）
+     * @param page  ページ番号（0始まり）
+     * @param size  1ページあたりの件数
+     * @return 検索結果のページ
+     */
+    public SearchPage search(String query, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || size <= 0 || page < 0) {
+            return new SearchPage(List.of(), page, size, 0);
+        }
+        int needed = (int) Math.min(((long) page + 1) * size, Integer.MAX_VALUE);
+
+        lock.readLock().lock();
+        try {
+            // 出現件数の少ない検索語から順に積集合をとる
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return new SearchPage(List.of(), page, size, 0);
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            int[] candidates = Arrays.copyOf(lists.get(0).ordinals, lists.get(0).size);
+            double[] scores = new double[candidates.length];
+            int candidateCount = candidates.length;
+            double idf = idf(lists.get(0).size);
+            for (int i = 0; i < candidateCount; i++) {
+                scores[i] = lists.get(0).weights[i] * idf;
+            }
+            for (int l = 1; l < lists.size() && candidateCount > 0; l++) {
+                candidateCount = intersect(candidates, scores, candidateCount, lists.get(l));
+            }
+
+            // 上位needed件のみを保持する
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(Math.min(needed, candidateCount) + 1, RANKING.reversed());
+            for (int i = 0; i < candidateCount; i++) {
+                int ordinal = candidates[i];
+                top.offer(new SearchHit(recipeIds[ordinal], titles[ordinal], descriptions[ordinal], scores[i]));
+                if (top.size() > needed) {
+                    top.poll();
+                }
+            }
+
+            List<SearchHit> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING);
+            int from = (int) Math.min((long) page * size, ranked.size());
+            return new SearchPage(List.copyOf(ranked.subList(from, ranked.size())), page, size, candidateCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * インデックスに登録済みのレシピかを返します
+     */
+    private boolean contains(long recipeId) {
+        lock.readLock().lock();
+        try {
+            return ordinalsByRecipeId.containsKey(recipeId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * インデックスに登録されているレシピの数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * テキストを検索語（文字のバイグラム）に分割します
+     *
+     * <p>正規化（NFKC・小文字化）したうえで、文字・数字が連続する部分ごとにバイグラムを作ります。
+     * 1文字だけの部分はその1文字を検索語とします。</p>
+     */
+    static List<String> tokenize(String text) {
+        String normalized = RecipeRequestKey.normalize(text);
+        if (normalized == null) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        int runStart = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && runStart < 0) {
+                runStart = i;
+            } else if (!wordChar && runStart >= 0) {
+                if (i - runStart == 1) {
+                    terms.add(normalized.substring(runStart, i));
+                }
+                for (int j = runStart; j + 2 <= i; j++) {
+                    terms.add(normalized.substring(j, j + 2));
+                }
+                runStart = -1;
+            }
+        }
+        return terms;
+    }
+
+    private void addTerms(Map<String, Integer> termWeights, String text, int weight) {
+        for (String term : tokenize(text)) {
+            termWeights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1.0 + (double) size / documentFrequency);
+    }
+
+    /**
+     * 候補（昇順）とポスティングリストの積集合を候補配列に詰め直し、スコアを加算します
+     *
+     * @return 積集合の件数
+     */
+    private int intersect(int[] candidates, double[] scores, int candidateCount, Postings list) {
+        double idf = idf(list.size);
+        int kept = 0;
+        int position = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int ordinal = candidates[i];
+            position = list.seek(ordinal, position);
+            if (position >= list.size) {
+                break;
+            }
+            if (list.ordinals[position] == ordinal) {
+                candidates[kept] = ordinal;
+                scores[kept] = scores[i] + list.weights[position] * idf;
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= recipeIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, recipeIds.length * 2);
+        recipeIds = Arrays.copyOf(recipeIds, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    // 関連度の高い順 → 新しいレシピ順
+    private static final Comparator<SearchHit> RANKING = Comparator
+            .comparingDouble(SearchHit::score).reversed()
+            .thenComparing(Comparator.comparingLong(SearchHit::recipeId).reversed());
+
+    /**
+     * 検索語ごとのポスティングリスト（序数の昇順）
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        private void add(int ordinal, int weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * from以降で、指定した序数以上になる最初の位置を返します（ギャロッピング探索）
+         */
+        private int seek(int ordinal, int from) {
+            int bound = 1;
+            while (from + bound < size && ordinals[from + bound] < ordinal) {
+                bound <<= 1;
+            }
+            int low = from;
+            int high = Math.min(from + bound, size - 1);
+            if (low > high) {
+                return size;
+            }
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ordinals[mid] < ordinal) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return ordinals[low] >= ordinal ? low : size;
+        }
+    }
+
+    /**
+     * 検索結果の1件
+     *
+     * @param recipeId    レシピID
+     * @param title       レシピタイトル
+     * @param description レシピの説明
+     * @param score       関連度
+     */
+    public record SearchHit(long recipeId, String title, String description, double score) {
+    }
+
+    /**
+     * 検索結果のページ
+     *
+     * @param hits  このページの検索結果
+     * @param page  ページ番号（0始まり）
+     * @param size  1ページあたりの件数
+     * @param total 一致したレシピの総数
+     */
+    public record SearchPage(List<SearchHit> hits, int page, int size, int total) {
+    }
+}
@@ -1,8 +1,16 @@
 package com.recipe.app.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -10,272 +18,276 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
+import com.recipe.app.observability.PayloadLogSampler;
+import com.recipe.app.observability.RequestTimings;
+import com.recipe.app.resilience.AsyncBulkhead;
+import com.recipe.app.resilience.BulkheadFullException;
+import com.recipe.app.resilience.CallNotPermittedException;
+import com.recipe.app.resilience.CircuitBreaker;
+import com.recipe.app.service.RecipePromptBuilder.RecipePrompt;
+import com.recipe.app.service.SuggestMetrics.Phase;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
-import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelWithResponseStreamRequest;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelWithResponseStreamResponseHandler;
 
 @Service
 public class BedrockService {
 
-    private final BedrockRuntimeClient bedrockClient;
+    private static final Logger log = LoggerFactory.getLogger(BedrockService.class);
+
+    private final BedrockRuntimeAsyncClient bedrockAsyncClient;
     private final ObjectMapper objectMapper;
+    private final RecipeJsonParser recipeJsonParser;
+    private final RecipePromptBuilder recipePromptBuilder;
+    private final AsyncBulkhead bedrockBulkhead;
+    private final CircuitBreaker bedrockCircuitBreaker;
+    private final SuggestMetrics suggestMetrics;
+    private final PayloadLogSampler payloadLogSampler;
 
     @Value("${aws.bedrock.model-id}")
     private String modelId;
 
-    @Value("${aws.region}")
-    private String awsRegion;
-
     // 新しいパラメータ設定
     @Value("${aws.bedrock.parameters.temperature:0.7}")
     private double temperature;
 
-    @Value("${aws.bedrock.parameters.max-tokens:4000}")
-    private int maxTokens;
-
     @Value("${aws.bedrock.parameters.top-p:0.9}")
     private double topP;
 
-    @Value("${aws.bedrock.connection.max-retries:3}")
-    private int maxRetries;
-
-    @Value("${aws.bedrock.logging.enabled:false}")
-    private boolean loggingEnabled;
-
     @Value("${aws.bedrock.logging.include-request-body:false}")
     private boolean includeRequestBody;
 
+    @Value("${aws.bedrock.logging.include-response-body:false}")
+    private boolean includeResponseBody;
 
-    public BedrockService() {
-        this.bedrockClient = BedrockRuntimeClient.builder()
-                .region(Region.of(awsRegion != null ? awsRegion : "ap-northeast-1"))
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
+
+    public BedrockService(BedrockRuntimeAsyncClient bedrockAsyncClient, RecipeJsonParser recipeJsonParser,
+            RecipePromptBuilder recipePromptBuilder, AsyncBulkhead bedrockBulkhead, CircuitBreaker bedrockCircuitBreaker,
+            SuggestMetrics suggestMetrics, PayloadLogSampler payloadLogSampler) {
+        this.bedrockAsyncClient = bedrockAsyncClient;
         this.objectMapper = new ObjectMapper();
+        this.recipeJsonParser = recipeJsonParser;
+        this.recipePromptBuilder = recipePromptBuilder;
+        this.bedrockBulkhead = bedrockBulkhead;
+        this.bedrockCircuitBreaker = bedrockCircuitBreaker;
+        this.suggestMetrics = suggestMetrics;
+        this.payloadLogSampler = payloadLogSampler;
     }
+
     /**
      * レシピの生成を行います
+     *
+     * <p>モデルの呼び出しは非同期で行われ、呼び出し元のスレッドはブロックされません。
+     * 同時に実行できる呼び出しの数はバルクヘッドで制限され、上限を超えた場合は
+     * {@link BulkheadFullException} で失敗します。Bedrockの障害が続いてサーキットブレーカーが
+     * 開いている間は、呼び出しを行わずに {@link CallNotPermittedException} で即座に失敗します。</p>
+     *
+     * @param ingredients 食材リスト
+     * @param preferences 条件
+     * @param timings     リクエストの計測結果（null可）。プロンプト作成・呼び出し・パースの時間を加算します
+     * @return AIが生成したテキスト（レシピのJSONを含む）とトークン使用量で完了するFuture
      */
-    public String generateRecipe(List<String> ingredients, Map<String, Object> preferences) {
-        try {
-            // プロンプトの構築
-            String prompt = buildRecipePrompt(ingredients, preferences);
-
-            // ロギングが有効な場合はプロンプトを出力
-            if (loggingEnabled) {
-                System.out.println("生成プロンプト: " + prompt);
-
-                if (includeRequestBody) {
-                    System.out.println("食材リスト: " + ingredients);
-                    System.out.println("条件: " + preferences);
-                }
-            }
-
-            // Claude 3のリクエスト形式
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            requestBody.put("anthropic_version", "bedrock-2023-05-31");
-            requestBody.put("max_tokens", maxTokens);
-            requestBody.put("temperature", temperature);
-            requestBody.put("top_p", topP);
-
-            ObjectNode userMessage = objectMapper.createObjectNode();
-            userMessage.put("role", "user");
-            userMessage.put("content", prompt);
-
-            ArrayNode messages = objectMapper.createArrayNode();
-            messages.add(userMessage);
-
-            requestBody.set("messages", messages);
-
-            // リクエストの準備
-            InvokeModelRequest request = InvokeModelRequest.builder()
-                    .modelId(modelId)
-                    .body(software.amazon.awssdk.core.SdkBytes.fromUtf8String(requestBody.toString()))
-                    .build();
-
-            if (loggingEnabled) {
-                System.out.println("Bedrock APIリクエスト送信中...");
-            }
-
-            // モデル呼び出し
-            InvokeModelResponse response = bedrockClient.invokeModel(request);
-            String responseBody = response.body().asUtf8String();
-
-            if (loggingEnabled) {
-                System.out.println("Bedrock APIレスポンス受信完了");
-            }
-
-            // レスポンスの解析
-            JsonNode jsonResponse = objectMapper.readTree(responseBody);
-
-            // Claude 3のレスポンス形式に対応（content[0].text）
-            StringBuilder generatedText = new StringBuilder();
-            if (jsonResponse.has("content") && jsonResponse.get("content").isArray()) {
-                JsonNode contentArray = jsonResponse.get("content");
-
-                if (loggingEnabled) {
-                    System.out.println("コンテンツ配列サイズ: " + contentArray.size());
-                }
+    public CompletableFuture<GenerationResult> generateRecipe(List<String> ingredients, Map<String, Object> preferences,
+            RequestTimings timings) {
+        // プロンプトの構築
+        long promptStartNanos = System.nanoTime();
+        RecipePrompt prompt = recipePromptBuilder.build(ingredients, preferences);
+        String requestBody = buildRequestBody(prompt);
+        suggestMetrics.recordPhase(Phase.PROMPT_BUILD, promptStartNanos, timings);
+
+        // プロンプト・応答の全文は抽出したリクエストのみ出力する
+        String requestId = timings != null ? timings.requestId() : null;
+        boolean logPayload = payloadLogSampler.sample();
+        if (logPayload && includeRequestBody) {
+            log.atInfo().setMessage("Bedrockリクエスト")
+                    .addKeyValue("requestId", requestId)
+                    .addKeyValue("prompt", payloadLogSampler.truncate(prompt.user()))
+                    .log();
+        }
 
-                for (JsonNode contentItem : contentArray) {
-                    if (contentItem.has("type") && contentItem.get("type").asText().equals("text")) {
-                        String text = contentItem.get("text").asText();
+        // リクエストの準備
+        InvokeModelRequest request = InvokeModelRequest.builder()
+                .modelId(modelId)
+                .body(SdkBytes.fromUtf8String(requestBody))
+                .build();
 
-                        if (loggingEnabled) {
-                            System.out.println("テキストコンテンツを抽出: " + text.substring(0, Math.min(100, text.length())) + "...");
+        // モデル呼び出し（同時実行数を制限し、障害時はサーキットブレーカーで呼び出しを止める）
+        long startNanos = System.nanoTime();
+        return bedrockBulkhead.execute(() -> suggestMetrics.timeBedrockCall("sync", timings,
+                () -> bedrockCircuitBreaker.execute(() -> bedrockAsyncClient.invokeModel(request))))
+                .thenApply(response -> {
+                    long parseStartNanos = System.nanoTime();
+                    try {
+                        // 応答ボディのバイト列をコピーせずに読み取る
+                        GenerationResult result = recipeJsonParser.readGeneratedText(response.body().asByteArrayUnsafe());
+                        suggestMetrics.recordPhase(Phase.ENVELOPE_PARSE, parseStartNanos, timings);
+                        suggestMetrics.recordTokens(result.inputTokens(), result.outputTokens());
+                        suggestMetrics.countStopReason("sync", result.stopReason());
+                        logUsage(requestId, "sync", prompt, result.inputTokens(), result.outputTokens(),
+                                result.stopReason(), startNanos);
+
+                        if (logPayload && includeResponseBody) {
+                            log.atInfo().setMessage("Bedrockレスポンス")
+                                    .addKeyValue("requestId", requestId)
+                                    .addKeyValue("text", payloadLogSampler.truncate(result.text()))
+                                    .log();
                         }
-
-                        generatedText.append(text);
+                        return result;
+                    } catch (IOException e) {
+                        suggestMetrics.countParseFailure("envelope");
+                        throw new UncheckedIOException("AIモデルの応答の解析に失敗しました", e);
                     }
-                }
-            } else if (loggingEnabled) {
-                System.out.println("予期しないレスポンス形式: " + jsonResponse.toString().substring(0, 500) + "...");
-            }
-
-            if (generatedText.isEmpty()) {
-                throw new RuntimeException("AIモデルからの応答を解析できませんでした");
-            }
-
-            // JSONを抽出する処理を追加
-            return extractJsonArray(generatedText.toString());
-
-        } catch (Exception e) {
-            // ここで例外をスローせず、上位のリトライロジックに任せる
-            throw new RuntimeException(e);
-        }
+                });
     }
 
-    private String buildRecipePrompt(List<String> ingredients, Map<String, Object> preferences) {
-        StringBuilder promptBuilder = new StringBuilder();
-
-        // 難易度コードとデフォルト値の準備
-        String difficultyCode = "EASY"; // デフォルト値
-        String difficultyDescription = "簡単（初心者でも作れる料理）";
-
-        // レシピ数の取得（デフォルトは3）
-        int recipeCount = 3;
-
-        // 難易度コードを取得
-        if (preferences != null && preferences.containsKey("difficulty")) {
-            difficultyCode = (String) preferences.get("difficulty");
-
-            // 難易度に基づいた詳細な説明を設定（簡潔化）
-            switch (difficultyCode) {
-                case "MEDIUM":
-                    difficultyDescription = "普通（基本的な料理知識が必要）";
-                    break;
-                case "HARD":
-                    difficultyDescription = "難しい（料理上級者向け）";
-                    break;
-                case "EASY":
-                default:
-                    difficultyDescription = "簡単（初心者でも作れる料理）";
-                    difficultyCode = "EASY";
-                    break;
-            }
+    /**
+     * レシピの生成をストリーミングで行います
+     *
+     * <p>AIが出力したテキストを、生成され次第 {@code textConsumer} に順次渡します。
+     * テキストは生成途中の断片であり、JSONとして完結しているとは限りません。</p>
+     *
+     * @param ingredients  食材リスト
+     * @param preferences  条件
+     * @param timings      リクエストの計測結果（null可）
+     * @param textConsumer 生成されたテキストの断片を受け取る処理
+     * @return ストリームの受信が完了したときに完了するFuture。同時実行数の上限を超えた場合は
+     *         {@link BulkheadFullException}、サーキットブレーカーが開いている場合は
+     *         {@link CallNotPermittedException} で完了します。キャンセルすると、待ち行列から外すか
+     *         Bedrockのストリームを中止します
+     */
+    public CompletableFuture<Void> generateRecipeStream(List<String> ingredients, Map<String, Object> preferences,
+            RequestTimings timings, Consumer<String> textConsumer) {
+        long promptStartNanos = System.nanoTime();
+        RecipePrompt prompt = recipePromptBuilder.build(ingredients, preferences);
+        String requestBody = buildRequestBody(prompt);
+        suggestMetrics.recordPhase(Phase.PROMPT_BUILD, promptStartNanos, timings);
+
+        String requestId = timings != null ? timings.requestId() : null;
+        if (includeRequestBody && payloadLogSampler.sample()) {
+            log.atInfo().setMessage("Bedrockリクエスト（ストリーミング）")
+                    .addKeyValue("requestId", requestId)
+                    .addKeyValue("prompt", payloadLogSampler.truncate(prompt.user()))
+                    .log();
         }
 
-        // プロンプト
-        promptBuilder.append("あなたは料理のプロフェッショナルです。以下の食材を使った")
-                .append(recipeCount).append("つのレシピを作成してください。\n")
-                .append("難易度は【").append(difficultyDescription).append("】です。\n\n");
-
-        // 食材リスト
-        promptBuilder.append("食材:\n");
-        for (String ingredient : ingredients) {
-            promptBuilder.append("- ").append(ingredient).append("\n");
-        }
+        InvokeModelWithResponseStreamRequest request = InvokeModelWithResponseStreamRequest.builder()
+                .modelId(modelId)
+                .body(SdkBytes.fromUtf8String(requestBody))
+                .build();
 
-        // 好み/条件（簡略化）
-        promptBuilder.append("\n【条件】\n");
-        promptBuilder.append("- 難易度: ").append(difficultyCode).append("\n");
+        // トークン使用量（入力・出力）と終了した理由はストリームの開始・終了イベントで届く
+        int[] usage = new int[2];
+        String[] stopReason = new String[1];
+        InvokeModelWithResponseStreamResponseHandler handler = InvokeModelWithResponseStreamResponseHandler.builder()
+                .subscriber(InvokeModelWithResponseStreamResponseHandler.Visitor.builder()
+                        .onChunk(chunk -> handleStreamEvent(chunk.bytes().asUtf8String(), textConsumer, usage, stopReason))
+                        .build())
+                .build();
 
-        if (preferences != null) {
-            if (preferences.containsKey("cookingTime")) {
-                promptBuilder.append("- 調理時間: ").append(preferences.get("cookingTime")).append("分\n");
+        long startNanos = System.nanoTime();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicReference<CompletableFuture<Void>> invocation = new AtomicReference<>();
+        CompletableFuture<Void> call = bedrockBulkhead.execute(() -> suggestMetrics.timeBedrockCall("stream", timings,
+                () -> bedrockCircuitBreaker.execute(() -> {
+                    CompletableFuture<Void> future = bedrockAsyncClient.invokeModelWithResponseStream(request, handler);
+                    invocation.set(future);
+                    if (cancelled.get()) {
+                        future.cancel(true);
+                    }
+                    return future;
+                })));
+        CompletableFuture<Void> result = call.thenRun(() -> {
+            suggestMetrics.recordTokens(usage[0], usage[1]);
+            suggestMetrics.countStopReason("stream", stopReason[0]);
+            logUsage(requestId, "stream", prompt, usage[0], usage[1], stopReason[0], startNanos);
+        });
+
+        // 呼び出し元がキャンセルした場合（クライアントの切断など）は、同時実行数の枠を空けるため
+        // 待ち行列から外すか、受信中のストリームを中止する
+        result.whenComplete((ignored, error) -> {
+            if (result.isCancelled()) {
+                cancelled.set(true);
+                call.cancel(true);
+                CompletableFuture<Void> future = invocation.get();
+                if (future != null) {
+                    future.cancel(true);
+                }
             }
+        });
+        return result;
+    }
 
-            if (preferences.containsKey("servingSize")) {
-                promptBuilder.append("- 人数: ").append(preferences.get("servingSize")).append("人分\n");
-            }
+    /**
+     * リクエストごとのトークン使用量と所要時間を出力します（出力が上限で打ち切られた場合は警告）
+     */
+    private void logUsage(String requestId, String mode, RecipePrompt prompt, int inputTokens, int outputTokens,
+            String stopReason, long startNanos) {
+        boolean truncated = GenerationResult.STOP_MAX_TOKENS.equals(stopReason);
+        (truncated ? log.atWarn() : log.atInfo())
+                .setMessage(truncated ? "Bedrockの出力がmax_tokensで打ち切られました" : "Bedrock使用量")
+                .addKeyValue("requestId", requestId)
+                .addKeyValue("mode", mode)
+                .addKeyValue("recipeCount", prompt.recipeCount())
+                .addKeyValue("inputTokens", inputTokens)
+                .addKeyValue("outputTokens", outputTokens)
+                .addKeyValue("maxTokens", prompt.maxTokens())
+                .addKeyValue("stopReason", stopReason)
+                .addKeyValue("elapsedMs", (System.nanoTime() - startNanos) / 1_000_000)
+                .log();
+    }
 
-            if (preferences.containsKey("cuisineType")) {
-                promptBuilder.append("- 料理タイプ: ").append(preferences.get("cuisineType")).append("\n");
+    /**
+     * ストリームのイベント（Claude 3のメッセージストリーム形式）からテキストを取り出します
+     */
+    private void handleStreamEvent(String eventJson, Consumer<String> textConsumer, int[] usage, String[] stopReason) {
+        try {
+            JsonNode event = objectMapper.readTree(eventJson);
+            String type = event.path("type").asText();
+            if ("content_block_delta".equals(type)) {
+                JsonNode delta = event.path("delta");
+                if ("text_delta".equals(delta.path("type").asText())) {
+                    textConsumer.accept(delta.path("text").asText());
+                }
+            } else if ("message_start".equals(type)) {
+                usage[0] = event.path("message").path("usage").path("input_tokens").asInt();
+            } else if ("message_delta".equals(type)) {
+                usage[1] = event.path("usage").path("output_tokens").asInt();
+                JsonNode reason = event.path("delta").path("stop_reason");
+                if (reason.isTextual()) {
+                    stopReason[0] = reason.asText();
+                }
+            } else if ("message_stop".equals(type)) {
+                log.debug("Bedrock APIストリーム受信完了");
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException("ストリームイベントの解析に失敗しました", e);
         }
-
-        // JSON出力形式を厳格に指定
-        promptBuilder.append("\n【重要】以下のJSON形式の配列でレシピを出力してください。説明文は一切不要です。:\n");
-        promptBuilder.append("[\n");
-        promptBuilder.append("  {\n");
-        promptBuilder.append("    \"title\": \"レシピタイトル\",\n");
-        promptBuilder.append("    \"description\": \"簡単な説明\",\n");
-        promptBuilder.append("    \"ingredients\": [\n");
-        promptBuilder.append("      { \"name\": \"材料名\", \"quantity\": \"数量\", \"unit\": \"単位\", \"note\": \"備考\" }\n");
-        promptBuilder.append("    ],\n");
-        promptBuilder.append("    \"instructions\": [\"手順1\", \"手順2\", \"手順3\"],\n");
-        promptBuilder.append("    \"cookingTime\": 30,\n");
-        promptBuilder.append("    \"difficulty\": \"" + difficultyCode + "\",\n");
-        promptBuilder.append("    \"servingSize\": 2,\n");
-        promptBuilder.append("    \"tags\": [\"和食\", \"煮物\", \"簡単\"]\n");
-        promptBuilder.append("  }\n");
-        promptBuilder.append("]\n\n");
-        promptBuilder.append("【注意】\n");
-        promptBuilder.append("・JSONのみを出力し、他の説明文は一切不要です\n");
-        promptBuilder.append("・有効なJSONフォーマットに必ず従ってください\n");
-        promptBuilder.append("・レシピ数は").append(recipeCount).append("つのみにしてください\n");
-        promptBuilder.append("・手順（instructions）には番号（1., 2., 1.1.など）を付けないでください。単純な文として記述してください");
-
-        return promptBuilder.toString();
     }
 
     /**
-     * テキストからJSON配列部分を抽出します
-     *
-     * @param text 処理対象のテキスト
-     * @return 抽出されたJSON配列文字列
+     * Claude 3のリクエスト形式でリクエストボディを作成します
      */
-    private String extractJsonArray(String text) {
-        if (loggingEnabled) {
-            System.out.println("JSON抽出前のテキスト長: " + text.length());
-        }
-
-        // 角括弧で囲まれた部分を探す
-        int startIdx = text.indexOf('[');
-        int endIdx = text.lastIndexOf(']') + 1;
-
-        if (startIdx >= 0 && endIdx > startIdx) {
-            String extractedJson = text.substring(startIdx, endIdx);
-
-            if (loggingEnabled) {
-                System.out.println("JSON抽出後のテキスト長: " + extractedJson.length());
-            }
-
-            return extractedJson;
+    private String buildRequestBody(RecipePrompt prompt) {
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("anthropic_version", "bedrock-2023-05-31");
+        requestBody.put("max_tokens", prompt.maxTokens());
+        requestBody.put("temperature", temperature);
+        requestBody.put("top_p", topP);
+        if (prompt.system() != null) {
+            requestBody.put("system", prompt.system());
         }
 
-        // 角括弧がない場合は中括弧のみを探す（単一オブジェクト）
-        startIdx = text.indexOf('{');
-        endIdx = text.lastIndexOf('}') + 1;
-
-        if (startIdx >= 0 && endIdx > startIdx) {
-            String extractedJson = text.substring(startIdx, endIdx);
+        ObjectNode userMessage = objectMapper.createObjectNode();
+        userMessage.put("role", "user");
+        userMessage.put("content", prompt.user());
 
-            if (loggingEnabled) {
-                System.out.println("JSON抽出後のテキスト長: " + extractedJson.length());
-            }
-
-            return extractedJson;
-        }
-
-        // どちらも見つからなかった場合は元のテキストを返す
-        if (loggingEnabled) {
-            System.out.println("JSONが見つかりませんでした");
-        }
+        ArrayNode messages = objectMapper.createArrayNode();
+        messages.add(userMessage);
 
-        return text;
+        requestBody.set("messages", messages);
+        return requestBody.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,291 @@
+package com.recipe.app.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.recipe.app.dto.RecipeResponse;
+import com.recipe.app.model.Ingredient;
+import com.recipe.app.model.NutritionInfo;
+import com.recipe.app.model.Recipe;
+
+/**
+ * AI生成に失敗した場合に返すサンプルレシピを提供するクラス
+ *
+ * <p>サンプルレシピは初回利用時に1度だけ保存し（内容の指紋が同じレシピが保存済みであれば既存の行を再利用）、
+ * 以降は変更不可のレスポンスデータをメモリから返します。
+ * そのため、障害発生中もDBへの書き込みは発生しません。</p>
+ */
+@Component
+public class FallbackRecipeProvider {
+
+    private final RecipeStorageService recipeStorageService;
+    private final RecipeMapper recipeMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // 初回利用時に作成する変更不可のレスポンスデータ
+    private volatile Map<String, Object> fallbackData;
+
+    public FallbackRecipeProvider(RecipeStorageService recipeStorageService,
+            RecipeMapper recipeMapper, PlatformTransactionManager transactionManager) {
+        this.recipeStorageService = recipeStorageService;
+        this.recipeMapper = recipeMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * サンプルレシピを含むレスポンスを作成します
+     *
+     * @param message レスポンスに含めるメッセージ
+     * @return サンプルレシピのレスポンス
+     */
+    public RecipeResponse createResponse(String message) {
+        return new RecipeResponse(true, getFallbackData(), message);
+    }
+
+    /**
+     * レスポンス用の形式に変換済みのサンプルレシピを返します
+     *
+     * @return 変更不可のサンプルレシピのリスト
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getRecipes() {
+        return (List<Map<String, Object>>) getFallbackData().get("recipes");
+    }
+
+    private Map<String, Object> getFallbackData() {
+        Map<String, Object> data = fallbackData;
+        if (data == null) {
+            synchronized (this) {
+                data = fallbackData;
+                if (data == null) {
+                    data = createFallbackData();
+                    fallbackData = data;
+                }
+            }
+        }
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> createFallbackData() {
+        // 遅延ロードのコレクションを変換し終えるまでトランザクション内で実行する
+        List<Map<String, Object>> recipeMaps = transactionTemplate.execute(status -> loadOrSaveSampleRecipes().stream()
+                .map(recipe -> (Map<String, Object>) freeze(recipeMapper.convertToMap(recipe)))
+                .collect(Collectors.toUnmodifiableList()));
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("recipes", recipeMaps);
+        data.put("generationId", "gen-fallback");
+        return Collections.unmodifiableMap(data);
+    }
+
+    /**
+     * 保存済みのサンプルレシピがあれば再利用し、なければ保存します
+     *
+     * <p>タイトルではなく内容の指紋（{@link RecipeFingerprint}）で照合するため、
+     * 同じタイトルのAI生成レシピをサンプルレシピとして返すことはありません。</p>
+     */
+    private List<Recipe> loadOrSaveSampleRecipes() {
+        return recipeStorageService.saveAll(createSampleRecipes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object freeze(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            map.forEach((k, v) -> copy.put((String) k, freeze(v)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(v -> copy.add(freeze(v)));
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    /**
+     * サンプルレシピを新しく作成します（未保存）
+     */
+    private List<Recipe> createSampleRecipes() {
+        List<Recipe> recipes = new ArrayList<>();
+        
+        // サンプルレシピ1
+        Recipe recipe1 = createSampleRecipe();
+        recipes.add(recipe1);
+        
+        // サンプルレシピ2
+        Recipe recipe2 = new Recipe();
+        recipe2.setTitle("肉じゃが");
+        recipe2.setDescription("ホクホクじゃがいもと甘辛い味付けが美味しい定番おかず");
+        
+        List<Ingredient> ingredients2 = new ArrayList<>();
+        
+        Ingredient ingredient1 = new Ingredient();
+        ingredient1.setName("牛肉");
+        ingredient1.setQuantity("200");
+        ingredient1.setUnit("g");
+        ingredient1.setNote("薄切り");
+        ingredients2.add(ingredient1);
+        
+        Ingredient ingredient2 = new Ingredient();
+        ingredient2.setName("じゃがいも");
+        ingredient2.setQuantity("3");
+        ingredient2.setUnit("個");
+        ingredient2.setNote("一口大に切る");
+        ingredients2.add(ingredient2);
+        
+        Ingredient ingredient3 = new Ingredient();
+        ingredient3.setName("人参");
+        ingredient3.setQuantity("1");
+        ingredient3.setUnit("本");
+        ingredient3.setNote("乱切り");
+        ingredients2.add(ingredient3);
+        
+        Ingredient ingredient4 = new Ingredient();
+        ingredient4.setName("玉ねぎ");
+        ingredient4.setQuantity("1");
+        ingredient4.setUnit("個");
+        ingredient4.setNote("くし切り");
+        ingredients2.add(ingredient4);
+        
+        recipe2.setIngredients(ingredients2);
+        recipe2.setInstructions(Arrays.asList(
+            "野菜を切る",
+            "牛肉を炒める",
+            "調味料と野菜を加えて煮込む",
+            "落し蓋をして20分煮る"
+        ));
+        recipe2.setCookingTime(30);
+        recipe2.setDifficulty(Recipe.Difficulty.EASY);
+        recipe2.setServingSize(3);
+        recipe2.setTags(Arrays.asList("和食", "煮物", "定番"));
+        
+        NutritionInfo nutritionInfo2 = new NutritionInfo();
+        nutritionInfo2.setCalories(420);
+        nutritionInfo2.setProtein("25g");
+        nutritionInfo2.setCarbs("45g");
+        nutritionInfo2.setFat("18g");
+        recipe2.setNutritionInfo(nutritionInfo2);
+        
+        recipes.add(recipe2);
+        
+        // サンプルレシピ3
+        Recipe recipe3 = new Recipe();
+        recipe3.setTitle("ポテトと鶏肉のガーリックソテー");
+        recipe3.setDescription("簡単なのに本格的な味わいのソテー");
+        
+        List<Ingredient> ingredients3 = new ArrayList<>();
+        
+        Ingredient ingredient31 = new Ingredient();
+        ingredient31.setName("鶏もも肉");
+        ingredient31.setQuantity("250");
+        ingredient31.setUnit("g");
+        ingredient31.setNote("一口大");
+        ingredients3.add(ingredient31);
+        
+        Ingredient ingredient32 = new Ingredient();
+        ingredient32.setName("じゃがいも");
+        ingredient32.setQuantity("2");
+        ingredient32.setUnit("個");
+        ingredient32.setNote("くし切り");
+        ingredients3.add(ingredient32);
+        
+        Ingredient ingredient33 = new Ingredient();
+        ingredient33.setName("にんにく");
+        ingredient33.setQuantity("2");
+        ingredient33.setUnit("片");
+        ingredient33.setNote("みじん切り");
+        ingredients3.add(ingredient33);
+        
+        recipe3.setIngredients(ingredients3);
+        recipe3.setInstructions(Arrays.asList(
+            "じゃがいもをレンジで3分加熱",
+            "フライパンでにんにくを炒める",
+            "鶏肉を加えて焼く",
+            "じゃがいもを加えて塩コショウで味付け"
+        ));
+        recipe3.setCookingTime(15);
+        recipe3.setDifficulty(Recipe.Difficulty.EASY);
+        recipe3.setServingSize(2);
+        recipe3.setTags(Arrays.asList("洋風", "ソテー", "スピード"));
+        
+        NutritionInfo nutritionInfo3 = new NutritionInfo();
+        nutritionInfo3.setCalories(380);
+        nutritionInfo3.setProtein("28g");
+        nutritionInfo3.setCarbs("25g");
+        nutritionInfo3.setFat("20g");
+        recipe3.setNutritionInfo(nutritionInfo3);
+        
+        recipes.add(recipe3);
+        
+        return recipes;
+    }
+    
+    private Recipe createSampleRecipe() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("鶏肉と野菜の簡単煮物");
+        recipe.setDescription("ほくほくじゃがいもと柔らかい鶏肉の優しい味わい");
+        
+        // 材料の設定
+        List<Ingredient> ingredients = new ArrayList<>();
+        
+        Ingredient ingredient1 = new Ingredient();
+        ingredient1.setName("鶏もも肉");
+        ingredient1.setQuantity("300");
+        ingredient1.setUnit("g");
+        ingredient1.setNote("一口大に切る");
+        ingredients.add(ingredient1);
+        
+        Ingredient ingredient2 = new Ingredient();
+        ingredient2.setName("じゃがいも");
+        ingredient2.setQuantity("2");
+        ingredient2.setUnit("個");
+        ingredient2.setNote("4等分に切る");
+        ingredients.add(ingredient2);
+        
+        Ingredient ingredient3 = new Ingredient();
+        ingredient3.setName("人参");
+        ingredient3.setQuantity("1");
+        ingredient3.setUnit("本");
+        ingredient3.setNote("乱切り");
+        ingredients.add(ingredient3);
+        
+        recipe.setIngredients(ingredients);
+        
+        // 手順の設定
+        recipe.setInstructions(Arrays.asList(
+            "鶏肉を一口大に切ります",
+            "じゃがいもは皮をむき、4等分に切ります",
+            "人参は乱切りにします",
+            "鍋に調味料と水を入れて沸騰させます",
+            "具材を入れて中火で15分煮込みます"
+        ));
+        
+        // その他の情報
+        recipe.setCookingTime(25);
+        recipe.setDifficulty(Recipe.Difficulty.EASY);
+        recipe.setServingSize(2);
+        recipe.setTags(Arrays.asList("和食", "煮物", "晩ごはん"));
+        
+        // 栄養情報
+        NutritionInfo nutritionInfo = new NutritionInfo();
+        nutritionInfo.setCalories(450);
+        nutritionInfo.setProtein("28g");
+        nutritionInfo.setCarbs("30g");
+        nutritionInfo.setFat("22g");
+        recipe.setNutritionInfo(nutritionInfo);
+        
+        return recipe;
+    }
+}
@@ -0,0 +1,19 @@
+package com.recipe.app.service;
+
+/**
+ * AIモデルの生成結果
+ *
+ * @param text         生成されたテキスト（レシピのJSONを含む）
+ * @param inputTokens  入力トークン数（応答に含まれない場合は0）
+ * @param outputTokens 出力トークン数（応答に含まれない場合は0）
+ * @param stopReason   生成が終了した理由（{@code end_turn}・{@code max_tokens} など。応答に含まれない場合はnull）
+ */
+public record GenerationResult(String text, int inputTokens, int outputTokens, String stopReason) {
+
+    /** 出力トークン数の上限に達して途中で打ち切られた場合の {@code stopReason} */
+    public static final String STOP_MAX_TOKENS = "max_tokens";
+
+    public GenerationResult(String text, int inputTokens, int outputTokens) {
+        this(text, inputTokens, outputTokens, null);
+    }
+}
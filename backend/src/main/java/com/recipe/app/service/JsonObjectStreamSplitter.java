@@ -0,0 +1,113 @@
+package com.recipe.app.service;
+
+import java.util.function.Consumer;
+
+/**
+ * 少しずつ届くテキストから、JSON配列の要素オブジェクトを切り出します
+ *
+ * <p>AIの出力をストリームで受け取りながら、配列内のオブジェクトが閉じた時点で
+ * そのオブジェクトのJSON文字列を通知します。配列の前後にある説明文は無視します。
+ * 配列ではなく単一のオブジェクトが出力された場合は、そのオブジェクトを通知します。
+ * 説明文中の括弧（例: {@code [参考]}）のように、オブジェクトを含まないまま閉じた配列は読み飛ばし、次の配列を探します。</p>
+ *
+ * <p>このクラスはスレッドセーフではありません。1つのストリームにつき1インスタンスを使用してください。</p>
+ */
+public class JsonObjectStreamSplitter {
+
+    private final Consumer<String> objectConsumer;
+    private final StringBuilder current = new StringBuilder();
+
+    // 配列の外側で最初に見つかった括弧で決まる（配列なら1、単一オブジェクトなら0）
+    private int objectDepth = -1;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean finished;
+    private boolean foundObject;
+
+    /**
+     * @param objectConsumer 切り出したオブジェクトのJSON文字列を受け取る処理
+     */
+    public JsonObjectStreamSplitter(Consumer<String> objectConsumer) {
+        this.objectConsumer = objectConsumer;
+    }
+
+    /**
+     * 受信したテキストを追加します
+     *
+     * @param text 受信したテキストの断片
+     */
+    public void feed(CharSequence text) {
+        for (int i = 0; i < text.length() && !finished; i++) {
+            accept(text.charAt(i));
+        }
+    }
+
+    private void accept(char c) {
+        if (objectDepth < 0) {
+            // JSONの開始位置を探す（前置きの説明文は読み飛ばす）
+            if (c == '[') {
+                objectDepth = 1;
+                depth = 1;
+            } else if (c == '{') {
+                objectDepth = 0;
+                depth = 1;
+                current.append(c);
+            }
+            return;
+        }
+
+        boolean capturing = depth > objectDepth;
+        if (inString) {
+            if (capturing) {
+                current.append(c);
+            }
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+            return;
+        }
+
+        switch (c) {
+            case '"':
+                inString = true;
+                break;
+            case '{':
+            case '[':
+                depth++;
+                break;
+            case '}':
+            case ']':
+                depth--;
+                break;
+            default:
+                break;
+        }
+
+        if (capturing || depth > objectDepth) {
+            current.append(c);
+        }
+
+        if (capturing && depth == objectDepth) {
+            // オブジェクトが閉じたので通知する
+            foundObject = true;
+            String json = current.toString();
+            current.setLength(0);
+            objectConsumer.accept(json);
+        }
+
+        if (depth <= 0) {
+            if (foundObject || objectDepth == 0) {
+                finished = true;
+            } else {
+                // オブジェクトを含まない配列だったため、JSONの開始位置を探し直す
+                objectDepth = -1;
+                current.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.recipe.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.repository.RecipeSummary;
+
+/**
+ * 保存済みレシピの一覧をキーセット（シーク）方式でページングして取得するサービス
+ *
+ * <p>OFFSETを使わず、前のページの最後の行のキーより後ろを取得するため、
+ * テーブルが大きくなっても1ページあたりのコストは変わりません。
+ * 次のページの位置は不透明なカーソル文字列としてクライアントに返します。</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class RecipeBrowseService {
+
+    private final RecipeStore recipeStore;
+
+    public RecipeBrowseService(RecipeStore recipeStore) {
+        this.recipeStore = recipeStore;
+    }
+
+    /**
+     * 難易度と最大調理時間でレシピを調理時間の短い順に取得します
+     *
+     * @param difficulty     難易度
+     * @param maxCookingTime 最大調理時間（分）
+     * @param cursor         前のページで返されたカーソル（最初のページはnull）
+     * @param size           1ページあたりの件数
+     * @return レシピの概要のページ
+     * @throws IllegalArgumentException カーソルが不正な場合
+     */
+    public BrowsePage browseByDifficulty(Recipe.Difficulty difficulty, int maxCookingTime, String cursor, int size) {
+        long[] position = cursor != null ? decodeCursor(cursor, 2) : new long[] { Integer.MIN_VALUE, 0 };
+
+        List<RecipeSummary> rows = recipeStore.findSummariesByDifficulty(
+                difficulty, maxCookingTime, (int) position[0], position[1], size + 1);
+
+        return toPage(rows, size, last -> encodeCursor(last.getCookingTime(), last.getId()));
+    }
+
+    /**
+     * タグを持つレシピを登録順に取得します
+     *
+     * @param tag    タグ
+     * @param cursor 前のページで返されたカーソル（最初のページはnull）
+     * @param size   1ページあたりの件数
+     * @return レシピの概要のページ
+     * @throws IllegalArgumentException カーソルが不正な場合
+     */
+    public BrowsePage browseByTag(String tag, String cursor, int size) {
+        long afterId = cursor != null ? decodeCursor(cursor, 1)[0] : 0;
+
+        List<RecipeSummary> rows = recipeStore.findSummariesByTag(tag, afterId, size + 1);
+
+        return toPage(rows, size, last -> encodeCursor(last.getId()));
+    }
+
+    /**
+     * 材料（名前の完全一致）を使うレシピを登録順に取得します
+     *
+     * @param ingredient 材料名
+     * @param cursor     前のページで返されたカーソル（最初のページはnull）
+     * @param size       1ページあたりの件数
+     * @return レシピの概要のページ
+     * @throws IllegalArgumentException カーソルが不正な場合
+     */
+    public BrowsePage browseByIngredient(String ingredient, String cursor, int size) {
+        long afterId = cursor != null ? decodeCursor(cursor, 1)[0] : 0;
+
+        List<RecipeSummary> rows = recipeStore.findSummariesByIngredient(ingredient, afterId, size + 1);
+
+        return toPage(rows, size, last -> encodeCursor(last.getId()));
+    }
+
+    // 1件多く取得し、次のページがあるかを判定する
+    private BrowsePage toPage(List<RecipeSummary> rows, int size,
+            Function<RecipeSummary, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new BrowsePage(rows, null);
+        }
+        List<RecipeSummary> items = rows.subList(0, size);
+        return new BrowsePage(List.copyOf(items), cursorOf.apply(items.get(size - 1)));
+    }
+
+    private static String encodeCursor(long... values) {
+        StringBuilder builder = new StringBuilder();
+        for (long value : values) {
+            if (builder.length() > 0) {
+                builder.append(':');
+            }
+            builder.append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long[] decodeCursor(String cursor, int expectedLength) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":");
+            if (parts.length != expectedLength) {
+                throw new IllegalArgumentException("不正なカーソルです: " + cursor);
+            }
+            long[] values = new long[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Long.parseLong(parts[i]);
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException・Base64のデコードエラーを含む
+            throw new IllegalArgumentException("不正なカーソルです: " + cursor, e);
+        }
+    }
+
+    /**
+     * 一覧のページ
+     *
+     * @param items      このページのレシピの概要
+     * @param nextCursor 次のページのカーソル（最後のページの場合はnull）
+     */
+    public record BrowsePage(List<RecipeSummary> items, String nextCursor) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.recipe.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.recipe.app.model.Ingredient;
+import com.recipe.app.model.Recipe;
+
+/**
+ * レシピの内容の指紋（content hash）を計算するクラス
+ *
+ * <p>タイトル・材料（名前・分量・単位）・手順を正規化してSHA-256を計算します。正規化では
+ * NFKC・小文字化のうえで空白と句読点・記号（分量の {@code /} と {@code .} を除く）を取り除き、
+ * 材料は並び順に関係なく同じ値になるようにソートします。説明文・タグ・調理時間などは含めないため、
+ * 表記の揺れだけが異なるレシピは同じ指紋になります。</p>
+ */
+public final class RecipeFingerprint {
+
+    private static final Pattern IGNORED_CHARACTERS = Pattern.compile("[\\p{Z}\\s\\p{P}\\p{S}&&[^./]]+");
+
+    // 項目・要素の区切り（正規化後の文字列には含まれない制御文字を使う）
+    private static final char FIELD_SEPARATOR = '\u001e';
+    private static final char ITEM_SEPARATOR = '\u001f';
+
+    private RecipeFingerprint() {
+    }
+
+    /**
+     * レシピの内容の指紋を計算します
+     *
+     * @param recipe レシピ
+     * @return SHA-256（16進数64文字）
+     */
+    public static String of(Recipe recipe) {
+        List<String> ingredients = new ArrayList<>(recipe.getIngredients().size());
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            ingredients.add(canonical(ingredient.getName()) + ITEM_SEPARATOR
+                    + canonical(ingredient.getQuantity()) + ITEM_SEPARATOR
+                    + canonical(ingredient.getUnit()));
+        }
+        ingredients.sort(null);
+
+        StringBuilder content = new StringBuilder(256);
+        content.append(canonical(recipe.getTitle())).append(FIELD_SEPARATOR);
+        for (String ingredient : ingredients) {
+            content.append(ingredient).append(ITEM_SEPARATOR);
+        }
+        content.append(FIELD_SEPARATOR);
+        for (String instruction : recipe.getInstructions()) {
+            content.append(canonical(instruction)).append(ITEM_SEPARATOR);
+        }
+        return sha256(content.toString());
+    }
+
+    private static String canonical(String value) {
+        String normalized = RecipeRequestKey.normalize(value);
+        return normalized != null ? IGNORED_CHARACTERS.matcher(normalized).replaceAll("") : "";
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
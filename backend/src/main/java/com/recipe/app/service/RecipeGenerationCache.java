@@ -0,0 +1,71 @@
+package com.recipe.app.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.recipe.app.cache.TtlLruCache;
+import com.recipe.app.cache.TtlLruCacheMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * AIによるレシピ生成結果のキャッシュ
+ *
+ * <p>同じ食材・条件の組み合わせ（{@link RecipeRequestKey}）に対する生成結果を保持し、
+ * Bedrockへの再リクエストを省略します。期限切れのエントリは定期的に削除します。
+ * ヒット率は {@code cache.gets}（cache=recipe-generation, result=hit/miss）で確認できます。</p>
+ */
+@Component
+public class RecipeGenerationCache {
+
+    private final boolean enabled;
+    private final TtlLruCache<RecipeRequestKey, String> cache;
+
+    public RecipeGenerationCache(
+            @Value("${aws.bedrock.cache.enabled:true}") boolean enabled,
+            @Value("${aws.bedrock.cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${aws.bedrock.cache.max-entries:1000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = new TtlLruCache<>(maxEntries, TimeUnit.MINUTES.toNanos(ttlMinutes));
+        TtlLruCacheMetrics.bind(meterRegistry, "recipe-generation", cache);
+    }
+
+    /**
+     * キャッシュされた生成結果を取得します
+     *
+     * @param key 正規化されたリクエストキー
+     * @return AIが生成したテキスト（レシピのJSONを含む）。キャッシュが無効、または存在しない場合はnull
+     */
+    public String get(RecipeRequestKey key) {
+        return enabled ? cache.get(key) : null;
+    }
+
+    /**
+     * 生成結果をキャッシュします
+     *
+     * @param key               正規化されたリクエストキー
+     * @param generatedRecipes  AIが生成したテキスト（レシピのJSONを含む）
+     */
+    public void put(RecipeRequestKey key, String generatedRecipes) {
+        if (enabled) {
+            cache.put(key, generatedRecipes);
+        }
+    }
+
+    /**
+     * 参照されないまま期限切れになったエントリを削除し、メモリを解放します
+     */
+    @Scheduled(fixedDelayString = "${aws.bedrock.cache.purge-interval-ms:300000}",
+            initialDelayString = "${aws.bedrock.cache.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,394 @@
+package com.recipe.app.service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.recipe.app.model.Ingredient;
+import com.recipe.app.model.NutritionInfo;
+import com.recipe.app.model.Recipe;
+
+/**
+ * AIの応答をJacksonのストリーミングAPIで読み取り、レシピを組み立てます
+ *
+ * <p>モデルの応答（Claude 3のメッセージ形式）からテキストを取り出す処理と、
+ * テキストに含まれるJSONから {@link Recipe} を直接作る処理を提供します。
+ * どちらも中間の {@code JsonNode} ツリーを作らずに1回の走査で読み取ります。</p>
+ *
+ * <p>このクラスはスレッドセーフです。</p>
+ */
+@Component
+public class RecipeJsonParser {
+
+    // 手順の先頭に付いた番号（1.1. / 1. / Step 1: の順に取り除く）
+    private static final Pattern[] STEP_NUMBER_PATTERNS = {
+            Pattern.compile("^\\s*\\d+\\.\\d+\\.\\s*"),
+            Pattern.compile("^\\s*\\d+\\.\\s*"),
+            Pattern.compile("^\\s*Step\\s+\\d+[:\\. ]*\\s*")
+    };
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * モデルの応答ボディから、生成されたテキストとトークン使用量を取り出します
+     *
+     * <p>{@code content} 配列のうち {@code type} が {@code text} の要素を連結し、
+     * {@code usage} の入力・出力トークン数と {@code stop_reason} とあわせて返します。</p>
+     *
+     * @param responseBody モデルの応答ボディ（UTF-8のJSON）
+     * @return 生成結果
+     * @throws IOException 応答がJSONとして不正な場合、またはテキストが含まれない場合
+     */
+    public GenerationResult readGeneratedText(byte[] responseBody) throws IOException {
+        String firstText = null;
+        StringBuilder joinedText = null;
+        int inputTokens = 0;
+        int outputTokens = 0;
+        String stopReason = null;
+
+        try (JsonParser parser = jsonFactory.createParser(responseBody)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("usage".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String usageField = parser.currentName();
+                        parser.nextToken();
+                        if ("input_tokens".equals(usageField)) {
+                            inputTokens = readInt(parser);
+                        } else if ("output_tokens".equals(usageField)) {
+                            outputTokens = readInt(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    continue;
+                }
+                if ("stop_reason".equals(field) && value == JsonToken.VALUE_STRING) {
+                    stopReason = parser.getText();
+                    continue;
+                }
+                if (!"content".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                JsonToken block;
+                while ((block = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (block != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+
+                    String type = null;
+                    String text = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String blockField = parser.currentName();
+                        JsonToken blockValue = parser.nextToken();
+                        if ("type".equals(blockField) && blockValue == JsonToken.VALUE_STRING) {
+                            type = parser.getText();
+                        } else if ("text".equals(blockField) && blockValue == JsonToken.VALUE_STRING) {
+                            text = parser.getText();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    if (!"text".equals(type) || text == null) {
+                        continue;
+                    }
+
+                    // ほとんどの応答はテキストが1ブロックなので、その場合は連結用のバッファを作らない
+                    if (firstText == null) {
+                        firstText = text;
+                    } else {
+                        if (joinedText == null) {
+                            joinedText = new StringBuilder(firstText);
+                        }
+                        joinedText.append(text);
+                    }
+                }
+            }
+        }
+
+        String generatedText = joinedText != null ? joinedText.toString() : firstText;
+        if (generatedText == null || generatedText.isEmpty()) {
+            throw new IOException("AIモデルからの応答を解析できませんでした");
+        }
+        return new GenerationResult(generatedText, inputTokens, outputTokens, stopReason);
+    }
+
+    /**
+     * AIが生成したテキストからレシピを組み立てます
+     *
+     * <p>テキスト中で最初に現れる {@code [} または {@code {} からJSONとして読み取ります。
+     * 配列の場合は各要素を、単一のオブジェクトの場合はそのオブジェクトをレシピとして扱います。
+     * JSONの前後にある説明文は無視します。</p>
+     *
+     * @param generatedText AIが生成したテキスト
+     * @return 組み立てたレシピ（未保存）
+     * @throws IOException JSONが見つからない・不正な場合、または必須項目が欠けている場合
+     */
+    public List<Recipe> parseRecipes(String generatedText) throws IOException {
+        int start = indexOfJsonStart(generatedText);
+        if (start < 0) {
+            throw new IOException("AIの応答にJSONが含まれていません");
+        }
+
+        StringReader reader = new StringReader(generatedText);
+        reader.skip(start);
+
+        List<Recipe> recipes = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(reader)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    expect(parser, token, JsonToken.START_OBJECT);
+                    recipes.add(readRecipe(parser));
+                }
+            } else {
+                recipes.add(readRecipe(parser));
+            }
+        }
+        return recipes;
+    }
+
+    private static int indexOfJsonStart(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 現在位置（START_OBJECT）から1件分のレシピを読み取ります
+     */
+    private Recipe readRecipe(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+
+        Recipe recipe = new Recipe();
+        // コレクションは初期値が空のリストなので、項目の有無はフラグで判定する
+        boolean hasIngredients = false;
+        boolean hasInstructions = false;
+        boolean hasTags = false;
+        boolean hasCookingTime = false;
+        boolean hasServingSize = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "title":
+                    recipe.setTitle(readText(parser));
+                    break;
+                case "description":
+                    recipe.setDescription(readText(parser));
+                    break;
+                case "ingredients":
+                    recipe.setIngredients(readIngredients(parser));
+                    hasIngredients = true;
+                    break;
+                case "instructions":
+                    recipe.setInstructions(readInstructions(parser));
+                    hasInstructions = true;
+                    break;
+                case "cookingTime":
+                    recipe.setCookingTime(readInt(parser));
+                    hasCookingTime = value != JsonToken.VALUE_NULL;
+                    break;
+                case "difficulty":
+                    recipe.setDifficulty(readDifficulty(parser));
+                    break;
+                case "servingSize":
+                    recipe.setServingSize(readInt(parser));
+                    hasServingSize = value != JsonToken.VALUE_NULL;
+                    break;
+                case "tags":
+                    recipe.setTags(readStrings(parser));
+                    hasTags = true;
+                    break;
+                case "nutritionInfo":
+                    if (value != JsonToken.VALUE_NULL) {
+                        recipe.setNutritionInfo(readNutritionInfo(parser));
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        require(parser, recipe.getTitle() != null, "title");
+        require(parser, recipe.getDescription() != null, "description");
+        require(parser, hasIngredients, "ingredients");
+        require(parser, hasInstructions, "instructions");
+        require(parser, hasCookingTime, "cookingTime");
+        require(parser, recipe.getDifficulty() != null, "difficulty");
+        require(parser, hasServingSize, "servingSize");
+        require(parser, hasTags, "tags");
+        recipe.setContentHash(RecipeFingerprint.of(recipe));
+        return recipe;
+    }
+
+    private List<Ingredient> readIngredients(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+
+        List<Ingredient> ingredients = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(parser, token, JsonToken.START_OBJECT);
+
+            Ingredient ingredient = new Ingredient();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "name":
+                        ingredient.setName(readText(parser));
+                        break;
+                    case "quantity":
+                        ingredient.setQuantity(readText(parser));
+                        break;
+                    case "unit":
+                        ingredient.setUnit(readText(parser));
+                        break;
+                    case "note":
+                        ingredient.setNote(readText(parser));
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+
+            require(parser, ingredient.getName() != null, "ingredients[].name");
+            // 単位は省略されることがあるため空文字とする
+            if (ingredient.getUnit() == null) {
+                ingredient.setUnit("");
+            }
+            ingredients.add(ingredient);
+        }
+        return ingredients;
+    }
+
+    private List<String> readInstructions(JsonParser parser) throws IOException {
+        List<String> instructions = readStrings(parser);
+        for (int i = 0; i < instructions.size(); i++) {
+            instructions.set(i, normalizeInstruction(instructions.get(i)));
+        }
+        return instructions;
+    }
+
+    /**
+     * 手順の番号（1., 1.1., Step 1:など）と前後の空白を取り除き、先頭の文字を大文字にします
+     */
+    static String normalizeInstruction(String instruction) {
+        for (Pattern pattern : STEP_NUMBER_PATTERNS) {
+            Matcher matcher = pattern.matcher(instruction);
+            if (matcher.lookingAt()) {
+                instruction = instruction.substring(matcher.end());
+            }
+        }
+        instruction = instruction.trim();
+
+        if (!instruction.isEmpty() && Character.isLowerCase(instruction.charAt(0))) {
+            instruction = Character.toUpperCase(instruction.charAt(0)) + instruction.substring(1);
+        }
+        return instruction;
+    }
+
+    private List<String> readStrings(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+
+        List<String> values = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            values.add(readText(parser));
+        }
+        return values;
+    }
+
+    private Recipe.Difficulty readDifficulty(JsonParser parser) throws IOException {
+        String difficulty = readText(parser);
+        try {
+            return difficulty != null ? Recipe.Difficulty.valueOf(difficulty) : null;
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "不明な難易度です: " + difficulty, e);
+        }
+    }
+
+    private NutritionInfo readNutritionInfo(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+
+        NutritionInfo nutritionInfo = new NutritionInfo();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "calories":
+                    nutritionInfo.setCalories(readInt(parser));
+                    break;
+                case "protein":
+                    nutritionInfo.setProtein(readText(parser));
+                    break;
+                case "carbs":
+                    nutritionInfo.setCarbs(readText(parser));
+                    break;
+                case "fat":
+                    nutritionInfo.setFat(readText(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return nutritionInfo;
+    }
+
+    /**
+     * 現在位置の値を文字列として読み取ります（数値は文字列に変換、nullはnull）
+     */
+    private static String readText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            throw new JsonParseException(parser, "文字列または数値が必要です");
+        }
+        return parser.getValueAsString();
+    }
+
+    /**
+     * 現在位置の値を整数として読み取ります（数値として読めない文字列は0）
+     */
+    private static int readInt(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            throw new JsonParseException(parser, "数値が必要です");
+        }
+        return parser.getValueAsInt();
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, expected + " が必要ですが " + actual + " でした");
+        }
+    }
+
+    private static void require(JsonParser parser, boolean present, String field) throws IOException {
+        if (!present) {
+            throw new JsonParseException(parser, "必須項目がありません: " + field);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.recipe.app.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.recipe.app.model.Recipe;
+
+/**
+ * レシピエンティティをAPIレスポンスの形式に変換するクラス
+ */
+@Component
+public class RecipeMapper {
+
+    /**
+     * レシピをレスポンス用のMap形式に変換します
+     *
+     * @param recipe 保存済みのレシピ
+     * @return レスポンス用のMap
+     */
+    public Map<String, Object> convertToMap(Recipe recipe) {
+        // 材料の変換
+        List<Map<String, Object>> ingredientMaps = recipe.getIngredients().stream()
+            .map(i -> {
+                Map<String, Object> map = new HashMap<>();
+                map.put("name", i.getName());
+                map.put("quantity", i.getQuantity());
+                map.put("unit", i.getUnit());
+                map.put("note", i.getNote() != null ? i.getNote() : "");
+                return map;
+            })
+            .collect(Collectors.toList());
+        
+        // 栄養情報の変換
+        Map<String, Object> nutritionMap = null;
+        if (recipe.getNutritionInfo() != null) {
+            nutritionMap = new HashMap<>();
+            nutritionMap.put("calories", recipe.getNutritionInfo().getCalories());
+            nutritionMap.put("protein", recipe.getNutritionInfo().getProtein());
+            nutritionMap.put("carbs", recipe.getNutritionInfo().getCarbs());
+            nutritionMap.put("fat", recipe.getNutritionInfo().getFat());
+        }
+        
+        // レシピ情報の構築
+        Map<String, Object> recipeMap = new HashMap<>();
+        recipeMap.put("id", recipe.getId().toString());
+        recipeMap.put("title", recipe.getTitle());
+        recipeMap.put("description", recipe.getDescription());
+        recipeMap.put("ingredients", ingredientMaps);
+        recipeMap.put("instructions", recipe.getInstructions());
+        recipeMap.put("cookingTime", recipe.getCookingTime());
+        recipeMap.put("difficulty", recipe.getDifficulty().name());
+        recipeMap.put("servingSize", recipe.getServingSize());
+        recipeMap.put("tags", recipe.getTags());
+        
+        if (nutritionMap != null) {
+            recipeMap.put("nutritionInfo", nutritionMap);
+        }
+        
+        if (recipe.getImageUrl() != null) {
+            recipeMap.put("imageUrl", recipe.getImageUrl());
+        }
+        
+        return recipeMap;
+    }
+}
@@ -0,0 +1,235 @@
+package com.recipe.app.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * AIに渡すレシピ生成用のプロンプトを作成するクラス
+ *
+ * <p>コンパクトモードでは、出力形式の指示をシステムプロンプトにまとめ、
+ * ユーザーメッセージには食材と条件のみを含めます。{@code max_tokens} は
+ * レシピ数と、材料数・手順数の上限から見積もり、不要に長い出力を待たないようにします。</p>
+ */
+@Component
+public class RecipePromptBuilder {
+
+    /** レシピ数が指定されなかった場合の件数 */
+    public static final int DEFAULT_RECIPE_COUNT = 3;
+
+    /** 一度に生成できるレシピ数の上限 */
+    public static final int MAX_RECIPE_COUNT = 5;
+
+    private final boolean compact;
+    private final int maxSteps;
+    private final int maxIngredients;
+    private final int tokensPerRecipe;
+    private final int tokensPerStep;
+    private final int tokensPerIngredient;
+    private final int maxTokens;
+    private final String compactSystemPrompt;
+
+    /**
+     * @param compact         コンパクトモードを使う場合はtrue
+     * @param maxSteps            1レシピあたりの手順数の上限（コンパクトモード）
+     * @param maxIngredients      1レシピあたりの材料数の上限（コンパクトモード）
+     * @param tokensPerRecipe     材料・手順以外の部分に見込む1レシピあたりの出力トークン数
+     * @param tokensPerStep       1手順あたりに見込む出力トークン数
+     * @param tokensPerIngredient 1材料あたりに見込む出力トークン数
+     * @param maxTokens           出力トークン数の上限
+     */
+    public RecipePromptBuilder(
+            @Value("${aws.bedrock.prompt.compact:true}") boolean compact,
+            @Value("${aws.bedrock.prompt.max-steps:8}") int maxSteps,
+            @Value("${aws.bedrock.prompt.max-ingredients:15}") int maxIngredients,
+            @Value("${aws.bedrock.prompt.tokens-per-recipe:300}") int tokensPerRecipe,
+            @Value("${aws.bedrock.prompt.tokens-per-step:40}") int tokensPerStep,
+            @Value("${aws.bedrock.prompt.tokens-per-ingredient:35}") int tokensPerIngredient,
+            @Value("${aws.bedrock.parameters.max-tokens:4000}") int maxTokens) {
+        this.compact = compact;
+        this.maxSteps = maxSteps;
+        this.maxIngredients = maxIngredients;
+        this.tokensPerRecipe = tokensPerRecipe;
+        this.tokensPerStep = tokensPerStep;
+        this.tokensPerIngredient = tokensPerIngredient;
+        this.maxTokens = maxTokens;
+        this.compactSystemPrompt = buildCompactSystemPrompt(maxSteps, maxIngredients);
+    }
+
+    /**
+     * AIに渡すプロンプト
+     *
+     * @param system      システムプロンプト（使わない場合はnull）
+     * @param user        ユーザーメッセージ
+     * @param maxTokens   出力トークン数の上限
+     * @param recipeCount 生成するレシピ数
+     */
+    public record RecipePrompt(String system, String user, int maxTokens, int recipeCount) {
+    }
+
+    /**
+     * 食材と条件から、レシピ生成用のプロンプトを作成します
+     *
+     * @param ingredients 食材リスト
+     * @param preferences 条件（null可）。{@code recipeCount} でレシピ数を指定できます
+     * @return プロンプト
+     */
+    public RecipePrompt build(List<String> ingredients, Map<String, Object> preferences) {
+        int recipeCount = recipeCount(preferences);
+        if (!compact) {
+            return new RecipePrompt(null, buildVerbosePrompt(ingredients, preferences, recipeCount), maxTokens, recipeCount);
+        }
+
+        // 出力はレシピ数にほぼ比例するため、材料・手順を上限まで使った場合の見積もりに余裕（閉じ括弧など）を足して上限とする
+        int estimatedTokens = recipeCount
+                * (tokensPerRecipe + maxIngredients * tokensPerIngredient + maxSteps * tokensPerStep) + 50;
+        return new RecipePrompt(compactSystemPrompt, buildCompactPrompt(ingredients, preferences, recipeCount),
+                Math.min(estimatedTokens, maxTokens), recipeCount);
+    }
+
+    /**
+     * 条件から生成するレシピ数を取得します（未指定・不正な値は既定値、範囲外は1〜上限に丸める）
+     *
+     * @param preferences 条件（null可）
+     * @return レシピ数
+     */
+    public static int recipeCount(Map<String, Object> preferences) {
+        Object value = preferences != null ? preferences.get("recipeCount") : null;
+        int count;
+        if (value instanceof Number number) {
+            count = number.intValue();
+        } else if (value != null) {
+            try {
+                count = Integer.parseInt(value.toString().strip());
+            } catch (NumberFormatException e) {
+                return DEFAULT_RECIPE_COUNT;
+            }
+        } else {
+            return DEFAULT_RECIPE_COUNT;
+        }
+        return Math.max(1, Math.min(count, MAX_RECIPE_COUNT));
+    }
+
+    private static String buildCompactSystemPrompt(int maxSteps, int maxIngredients) {
+        return "あなたは料理のプロフェッショナルです。指定された食材と条件でレシピを作成し、"
+                + "次の形式のJSON配列のみを出力してください。説明文やコードブロックは不要です。\n"
+                + "[{\"title\":文字列,\"description\":60字以内,"
+                + "\"ingredients\":[{\"name\":文字列,\"quantity\":文字列,\"unit\":文字列,\"note\":文字列}],"
+                + "\"instructions\":[文字列],\"cookingTime\":分(整数),\"difficulty\":\"EASY|MEDIUM|HARD\","
+                + "\"servingSize\":整数,\"tags\":[文字列]}]\n"
+                + "材料は" + maxIngredients + "個以内、手順は" + maxSteps + "つ以内で番号を付けず、タグは3つ以内にしてください。";
+    }
+
+    private String buildCompactPrompt(List<String> ingredients, Map<String, Object> preferences, int recipeCount) {
+        StringBuilder promptBuilder = new StringBuilder(128);
+        promptBuilder.append("食材: ").append(String.join("、", ingredients)).append('\n');
+        promptBuilder.append("難易度: ").append(difficultyCode(preferences)).append('\n');
+
+        if (preferences != null) {
+            if (preferences.containsKey("cookingTime")) {
+                promptBuilder.append("調理時間: ").append(preferences.get("cookingTime")).append("分\n");
+            }
+            if (preferences.containsKey("servingSize")) {
+                promptBuilder.append("人数: ").append(preferences.get("servingSize")).append("人分\n");
+            }
+            if (preferences.containsKey("cuisineType")) {
+                promptBuilder.append("料理タイプ: ").append(preferences.get("cuisineType")).append('\n');
+            }
+        }
+
+        promptBuilder.append("レシピ数: ").append(recipeCount);
+        return promptBuilder.toString();
+    }
+
+    // 未指定・不明な難易度はEASYとして扱う
+    private static String difficultyCode(Map<String, Object> preferences) {
+        Object value = preferences != null ? preferences.get("difficulty") : null;
+        if ("MEDIUM".equals(value) || "HARD".equals(value)) {
+            return (String) value;
+        }
+        return "EASY";
+    }
+
+    private String buildVerbosePrompt(List<String> ingredients, Map<String, Object> preferences, int recipeCount) {
+        StringBuilder promptBuilder = new StringBuilder();
+
+        // 難易度コードとデフォルト値の準備
+        String difficultyCode = "EASY"; // デフォルト値
+        String difficultyDescription = "簡単（初心者でも作れる料理）";
+
+        // 難易度コードを取得（文字列以外・nullは既定値）
+        if (preferences != null && preferences.get("difficulty") instanceof String difficulty) {
+            difficultyCode = difficulty;
+
+            // 難易度に基づいた詳細な説明を設定（簡潔化）
+            switch (difficultyCode) {
+                case "MEDIUM":
+                    difficultyDescription = "普通（基本的な料理知識が必要）";
+                    break;
+                case "HARD":
+                    difficultyDescription = "難しい（料理上級者向け）";
+                    break;
+                case "EASY":
+                default:
+                    difficultyDescription = "簡単（初心者でも作れる料理）";
+                    difficultyCode = "EASY";
+                    break;
+            }
+        }
+
+        // プロンプト
+        promptBuilder.append("あなたは料理のプロフェッショナルです。以下の食材を使った")
+                .append(recipeCount).append("つのレシピを作成してください。\n")
+                .append("難易度は【").append(difficultyDescription).append("】です。\n\n");
+
+        // 食材リスト
+        promptBuilder.append("食材:\n");
+        for (String ingredient : ingredients) {
+            promptBuilder.append("- ").append(ingredient).append("\n");
+        }
+
+        // 好み/条件（簡略化）
+        promptBuilder.append("\n【条件】\n");
+        promptBuilder.append("- 難易度: ").append(difficultyCode).append("\n");
+
+        if (preferences != null) {
+            if (preferences.containsKey("cookingTime")) {
+                promptBuilder.append("- 調理時間: ").append(preferences.get("cookingTime")).append("分\n");
+            }
+
+            if (preferences.containsKey("servingSize")) {
+                promptBuilder.append("- 人数: ").append(preferences.get("servingSize")).append("人分\n");
+            }
+
+            if (preferences.containsKey("cuisineType")) {
+                promptBuilder.append("- 料理タイプ: ").append(preferences.get("cuisineType")).append("\n");
+            }
+        }
+
+        // JSON出力形式を厳格に指定
+        promptBuilder.append("\n【重要】以下のJSON形式の配列でレシピを出力してください。説明文は一切不要です。:\n");
+        promptBuilder.append("[\n");
+        promptBuilder.append("  {\n");
+        promptBuilder.append("    \"title\": \"レシピタイトル\",\n");
+        promptBuilder.append("    \"description\": \"簡単な説明\",\n");
+        promptBuilder.append("    \"ingredients\": [\n");
+        promptBuilder.append("      { \"name\": \"材料名\", \"quantity\": \"数量\", \"unit\": \"単位\", \"note\": \"備考\" }\n");
+        promptBuilder.append("    ],\n");
+        promptBuilder.append("    \"instructions\": [\"手順1\", \"手順2\", \"手順3\"],\n");
+        promptBuilder.append("    \"cookingTime\": 30,\n");
+        promptBuilder.append("    \"difficulty\": \"" + difficultyCode + "\",\n");
+        promptBuilder.append("    \"servingSize\": 2,\n");
+        promptBuilder.append("    \"tags\": [\"和食\", \"煮物\", \"簡単\"]\n");
+        promptBuilder.append("  }\n");
+        promptBuilder.append("]\n\n");
+        promptBuilder.append("【注意】\n");
+        promptBuilder.append("・JSONのみを出力し、他の説明文は一切不要です\n");
+        promptBuilder.append("・有効なJSONフォーマットに必ず従ってください\n");
+        promptBuilder.append("・レシピ数は").append(recipeCount).append("つのみにしてください\n");
+        promptBuilder.append("・手順（instructions）には番号（1., 2., 1.1.など）を付けないでください。単純な文として記述してください");
+
+        return promptBuilder.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com.recipe.app.service;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.recipe.app.dto.RecipeRequest;
+
+/**
+ * レシピリクエストを正規化したキー
+ *
+ * <p>食材の並び順・表記ゆれ（全角/半角、大文字/小文字、前後の空白）や重複に関係なく、
+ * 同じ生成結果になるリクエストは同じキーになります。</p>
+ *
+ * @param ingredients         正規化・ソート済みの食材
+ * @param excludedIngredients 正規化・ソート済みの除外食材
+ * @param difficulty          難易度コード
+ * @param cookingTime         調理時間（未指定の場合はnull）
+ * @param servingSize         人数（未指定の場合はnull）
+ * @param cuisineType         料理タイプ（未指定の場合はnull）
+ * @param recipeCount         生成するレシピ数
+ */
+public record RecipeRequestKey(
+        List<String> ingredients,
+        List<String> excludedIngredients,
+        String difficulty,
+        String cookingTime,
+        String servingSize,
+        String cuisineType,
+        int recipeCount) {
+
+    /**
+     * リクエストから正規化したキーを作成します
+     *
+     * @param request レシピリクエスト情報
+     * @return 正規化されたキー
+     */
+    public static RecipeRequestKey from(RecipeRequest request) {
+        Map<String, Object> preferences = request.getPreferences();
+        return new RecipeRequestKey(
+                normalizeAll(request.getIngredients()),
+                normalizeAll(request.getExcludedIngredients()),
+                normalizeDifficulty(preference(preferences, "difficulty")),
+                normalizeNumber(preference(preferences, "cookingTime")),
+                normalizeNumber(preference(preferences, "servingSize")),
+                normalizeText(preference(preferences, "cuisineType")),
+                RecipePromptBuilder.recipeCount(preferences));
+    }
+
+    /**
+     * キーと同じ生成結果になるリクエストを作成します（事前生成などで、保存したキーから生成する場合に使用します）
+     *
+     * @return 正規化済みの食材・条件を持つリクエスト
+     */
+    public RecipeRequest toRequest() {
+        Map<String, Object> preferences = new HashMap<>();
+        preferences.put("difficulty", difficulty);
+        preferences.put("recipeCount", recipeCount);
+        if (cookingTime != null) {
+            preferences.put("cookingTime", cookingTime);
+        }
+        if (servingSize != null) {
+            preferences.put("servingSize", servingSize);
+        }
+        if (cuisineType != null) {
+            preferences.put("cuisineType", cuisineType);
+        }
+
+        RecipeRequest request = new RecipeRequest();
+        request.setIngredients(ingredients);
+        request.setExcludedIngredients(excludedIngredients);
+        request.setPreferences(preferences);
+        return request;
+    }
+
+    /**
+     * 食材名などの文字列を正規化します（NFKC・小文字化・前後空白除去）
+     *
+     * @param value 正規化対象の文字列
+     * @return 正規化後の文字列。空になった場合はnull
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFKC)
+                .strip()
+                .toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static List<String> normalizeAll(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        return values.stream()
+                .map(RecipeRequestKey::normalize)
+                .filter(v -> v != null)
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static Object preference(Map<String, Object> preferences, String name) {
+        return preferences != null ? preferences.get(name) : null;
+    }
+
+    // プロンプト生成時と同じく、未指定・不明な難易度はEASYとして扱う
+    private static String normalizeDifficulty(Object value) {
+        String difficulty = value != null ? value.toString().strip().toUpperCase(Locale.ROOT) : "";
+        switch (difficulty) {
+            case "MEDIUM":
+            case "HARD":
+                return difficulty;
+            default:
+                return "EASY";
+        }
+    }
+
+    private static String normalizeNumber(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return Long.toString(number.longValue());
+        }
+        return normalize(value.toString());
+    }
+
+    private static String normalizeText(Object value) {
+        return value != null ? normalize(value.toString()) : null;
+    }
+}
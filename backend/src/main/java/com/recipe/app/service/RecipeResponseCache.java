@@ -0,0 +1,110 @@
+package com.recipe.app.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipe.app.cache.TtlLruCache;
+import com.recipe.app.cache.TtlLruCacheMetrics;
+import com.recipe.app.dto.RecipeResponse;
+import com.recipe.app.observability.RequestTimings;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * レシピ詳細のレスポンスをシリアライズ済みのバイト列でキャッシュするクラス
+ *
+ * <p>保存済みのレシピは変更されないため、JSONに変換したUTF-8のバイト列と
+ * その内容から計算したETagをレシピIDごとに保持します。
+ * ヒット率は {@code cache.gets}（cache=recipe-response, result=hit/miss）で確認できます。</p>
+ */
+@Component
+public class RecipeResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final TtlLruCache<Long, SerializedResponse> cache;
+
+    public RecipeResponseCache(ObjectMapper objectMapper,
+            @Value("${app.recipe-cache.max-entries:5000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        // 保存済みのレシピは変更されないため期限は設けない
+        this.cache = new TtlLruCache<>(maxEntries, 0);
+        TtlLruCacheMetrics.bind(meterRegistry, "recipe-response", cache);
+    }
+
+    /**
+     * シリアライズ済みのレスポンスを取得します。キャッシュにない場合は読み込んでキャッシュします
+     *
+     * @param id      レシピID
+     * @param loader  レスポンスを読み込む処理
+     * @param timings リクエストの計測結果（null可）。読み込み（{@code db}）とシリアライズの時間を加算します
+     * @return シリアライズ済みのレスポンス
+     * @throws Exception 読み込みに失敗した場合（失敗結果はキャッシュしません）
+     */
+    public SerializedResponse get(long id, Callable<RecipeResponse> loader, RequestTimings timings) throws Exception {
+        SerializedResponse cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadStartNanos = System.nanoTime();
+        RecipeResponse loaded = loader.call();
+        long serializeStartNanos = System.nanoTime();
+        byte[] body = objectMapper.writeValueAsBytes(loaded);
+        if (timings != null) {
+            timings.record(RequestTimings.DB, serializeStartNanos - loadStartNanos);
+            timings.recordSince(RequestTimings.SERIALIZE, serializeStartNanos);
+        }
+        SerializedResponse response = new SerializedResponse(body, computeETag(body));
+        cache.put(id, response);
+        return response;
+    }
+
+    private static String computeETag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            // 強いETag（レスポンスのバイト列が同一であることを表す）
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * シリアライズ済みのレスポンス
+     *
+     * @param body UTF-8でエンコードされたJSON
+     * @param etag 引用符付きの強いETag
+     */
+    public record SerializedResponse(byte[] body, String etag) {
+
+        /**
+         * If-None-Matchヘッダーの値がこのレスポンスのETagと一致するかを判定します
+         *
+         * @param ifNoneMatch If-None-Matchヘッダーの値（nullの場合は一致しない）
+         * @return 一致する場合はtrue
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.strip();
+                // If-None-Matchは弱い比較で判定する
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
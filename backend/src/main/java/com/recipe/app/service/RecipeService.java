@@ -1,5 +1,10 @@
 package com.recipe.app.service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 import com.recipe.app.dto.RecipeRequest;
 import com.recipe.app.dto.RecipeResponse;
 
@@ -12,9 +17,27 @@ public interface RecipeService {
      * 指定された食材と条件から、おすすめのレシピを提案します
      *
      * @param request レシピリクエスト情報
-     * @return レシピ提案のレスポンス
+     * @return レシピ提案のレスポンスで完了するFuture
+     */
+    CompletableFuture<RecipeResponse> suggestRecipes(RecipeRequest request);
+    
+    /**
+     * 複数の食材・条件に対するレシピ提案をまとめて行います
+     *
+     * @param requests レシピリクエスト情報のリスト
+     * @return リクエストごとの結果を含むレスポンスで完了するFuture
+     */
+    CompletableFuture<RecipeResponse> suggestRecipesBatch(List<RecipeRequest> requests);
+    
+    /**
+     * 指定された食材と条件から、おすすめのレシピをストリーミングで提案します
+     *
+     * @param request        レシピリクエスト情報
+     * @param recipeConsumer 生成・保存されたレシピを1件ずつ受け取る処理
+     * @return 提案したレシピの件数で完了するFuture。Bedrockの同時実行数の上限で拒否された場合は
+     *         {@link com.recipe.app.resilience.BulkheadFullException} で完了します
      */
-    RecipeResponse suggestRecipes(RecipeRequest request);
+    CompletableFuture<Integer> streamRecipes(RecipeRequest request, Consumer<Map<String, Object>> recipeConsumer);
     
     /**
      * 指定されたIDのレシピを取得します
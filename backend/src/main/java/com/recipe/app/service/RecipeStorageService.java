@@ -0,0 +1,140 @@
+package com.recipe.app.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.recipe.app.model.Recipe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * レシピの保存を行うサービス
+ *
+ * <p>複数のレシピを1つのトランザクションでまとめて保存し、
+ * 保存先（{@link RecipeStore}）へのINSERTをJDBCバッチで送信します。
+ * 保存後は {@link RecipesSavedEvent} を発行します。</p>
+ *
+ * <p>内容の指紋（{@link RecipeFingerprint}）が同じレシピが保存済みの場合はINSERTせず、保存済みのレシピを返します。
+ * 保存した件数と重複として省略した件数は {@code recipe.storage.saved}（result=inserted/deduplicated）で記録します。</p>
+ */
+@Service
+public class RecipeStorageService {
+
+    private final RecipeStore recipeStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter insertedCounter;
+    private final Counter deduplicatedCounter;
+
+    public RecipeStorageService(RecipeStore recipeStore, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.recipeStore = recipeStore;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.insertedCounter = savedCounter(meterRegistry, "inserted");
+        this.deduplicatedCounter = savedCounter(meterRegistry, "deduplicated");
+    }
+
+    private static Counter savedCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("recipe.storage.saved")
+                .description("保存を要求されたレシピの件数（INSERTした件数と、保存済みのレシピを返した件数）")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * レシピをまとめて保存します
+     *
+     * @param recipes 保存するレシピ
+     * @return 保存されたレシピ（IDが採番済み）。引数と同じ順序・件数で、同じ内容のレシピが保存済みの場合はそのレシピ
+     */
+    public List<Recipe> saveAll(List<Recipe> recipes) {
+        if (recipes.isEmpty()) {
+            return List.of();
+        }
+        SaveResult result;
+        try {
+            result = transactionTemplate.execute(status -> saveDeduplicated(recipes));
+        } catch (DataIntegrityViolationException e) {
+            // 他のスレッド・タスクが同じ内容のレシピを同時に保存した場合は、保存済みのレシピを使ってやり直す
+            recipes.forEach(RecipeStorageService::resetForRetry);
+            result = transactionTemplate.execute(status -> saveDeduplicated(recipes));
+        }
+        insertedCounter.increment(result.insertedCount());
+        deduplicatedCounter.increment(recipes.size() - result.insertedCount());
+        return result.recipes();
+    }
+
+    /**
+     * レシピを1件保存します
+     *
+     * @param recipe 保存するレシピ
+     * @return 保存されたレシピ（IDが採番済み）。同じ内容のレシピが保存済みの場合はそのレシピ
+     */
+    public Recipe save(Recipe recipe) {
+        return saveAll(List.of(recipe)).get(0);
+    }
+
+    /**
+     * ロールバックされた保存で採番されたIDと、Hibernateが差し替えたコレクションを元に戻します
+     */
+    private static void resetForRetry(Recipe recipe) {
+        recipe.setId(null);
+        recipe.setIngredients(new ArrayList<>(recipe.getIngredients()));
+        recipe.setInstructions(new ArrayList<>(recipe.getInstructions()));
+        recipe.setTags(new ArrayList<>(recipe.getTags()));
+    }
+
+    private SaveResult saveDeduplicated(List<Recipe> recipes) {
+        Set<String> contentHashes = new LinkedHashSet<>();
+        for (Recipe recipe : recipes) {
+            if (recipe.getContentHash() == null) {
+                recipe.setContentHash(RecipeFingerprint.of(recipe));
+            }
+            contentHashes.add(recipe.getContentHash());
+        }
+
+        Map<String, Recipe> storedByHash = new HashMap<>();
+        for (Recipe stored : recipeStore.findByContentHashIn(contentHashes)) {
+            storedByHash.put(stored.getContentHash(), stored);
+        }
+
+        // 同じ呼び出しの中の重複も1件だけ保存する
+        List<Recipe> savedRecipes = new ArrayList<>(recipes.size());
+        List<Recipe> newRecipes = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            Recipe stored = storedByHash.putIfAbsent(recipe.getContentHash(), recipe);
+            if (stored == null) {
+                newRecipes.add(recipe);
+                stored = recipe;
+            }
+            savedRecipes.add(stored);
+        }
+
+        if (!newRecipes.isEmpty()) {
+            recipeStore.insertAll(newRecipes);
+            eventPublisher.publishEvent(new RecipesSavedEvent(newRecipes));
+        }
+        return new SaveResult(savedRecipes, newRecipes.size());
+    }
+
+    /**
+     * 保存結果
+     *
+     * @param recipes       引数と同じ順序の保存されたレシピ
+     * @param insertedCount INSERTした件数
+     */
+    private record SaveResult(List<Recipe> recipes, int insertedCount) {
+    }
+}
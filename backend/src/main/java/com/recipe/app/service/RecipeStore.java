@@ -0,0 +1,54 @@
+package com.recipe.app.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.repository.RecipeSummary;
+
+/**
+ * レシピの保存先（保存形式）を抽象化したインターフェース
+ *
+ * <p>{@code app.recipe-storage.mode} で、レシピ本体と材料・手順・タグを別テーブルに保存する
+ * {@code relational}（既定）と、1行のjsonbにまとめて保存する {@code document} を切り替えます。
+ * 呼び出し元のトランザクション内で使用してください。</p>
+ */
+public interface RecipeStore {
+
+    /**
+     * IDを指定してレシピを取得します（材料・手順・タグはトランザクション内で参照できます）
+     */
+    Optional<Recipe> findById(long id);
+
+    /**
+     * 内容の指紋で保存済みのレシピを取得します（材料・手順・タグは読み込み済み）
+     */
+    List<Recipe> findByContentHashIn(Collection<String> contentHashes);
+
+    /**
+     * 指定IDより後ろのレシピをID順に取得します（全件走査用）
+     */
+    List<Recipe> findByIdGreaterThanOrderByIdAsc(long afterId, int limit);
+
+    /**
+     * 難易度・調理時間でレシピの概要を取得します（調理時間・IDの順にキーセットページング）
+     */
+    List<RecipeSummary> findSummariesByDifficulty(Recipe.Difficulty difficulty, int maxCookingTime,
+            int afterCookingTime, long afterId, int limit);
+
+    /**
+     * タグでレシピの概要を取得します（IDの順にキーセットページング）
+     */
+    List<RecipeSummary> findSummariesByTag(String tag, long afterId, int limit);
+
+    /**
+     * 材料名（完全一致）でレシピの概要を取得します（IDの順にキーセットページング）
+     */
+    List<RecipeSummary> findSummariesByIngredient(String ingredient, long afterId, int limit);
+
+    /**
+     * 新しいレシピをまとめて保存し、採番したIDを各レシピに設定します
+     */
+    void insertAll(List<Recipe> recipes);
+}
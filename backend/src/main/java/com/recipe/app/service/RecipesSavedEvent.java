@@ -0,0 +1,16 @@
+package com.recipe.app.service;
+
+import java.util.List;
+
+import com.recipe.app.model.Recipe;
+
+/**
+ * レシピが保存されたことを通知するイベント
+ *
+ * <p>検索用のインデックスなど、保存済みレシピに追従する処理が購読します。
+ * トランザクションのコミット後に処理してください。</p>
+ *
+ * @param recipes 保存されたレシピ（IDが採番済み）
+ */
+public record RecipesSavedEvent(List<Recipe> recipes) {
+}
@@ -0,0 +1,209 @@
+package com.recipe.app.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.recipe.app.observability.RequestTimings;
+import com.recipe.app.resilience.CallNotPermittedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.services.bedrockruntime.model.ThrottlingException;
+
+/**
+ * レシピ提案の処理段階ごとの所要時間と、Bedrockの呼び出し結果・トークン使用量を記録するクラス
+ *
+ * <p>記録したメトリクスは {@code /actuator/prometheus} で公開されます。リクエストの計測結果
+ * （{@link RequestTimings}）が渡された場合は、同じ時間をそのリクエストの {@code Server-Timing} にも加算します。</p>
+ * <ul>
+ *   <li>{@code recipe.suggest.phase}（phase）: 処理段階ごとの所要時間</li>
+ *   <li>{@code bedrock.invoke}（model, mode, outcome）: Bedrockの呼び出し時間（バルクヘッドの待ち時間を除く）</li>
+ *   <li>{@code bedrock.tokens}（model, type）: 1回の呼び出しの入力・出力トークン数</li>
+ *   <li>{@code bedrock.stop.reason}（model, mode, reason）: 生成が終了した理由ごとの回数（{@code max_tokens} は出力の打ち切り）</li>
+ *   <li>{@code recipe.suggest.fallback}（endpoint, reason）: サンプルレシピを返した回数</li>
+ *   <li>{@code recipe.suggest.parse.failures}（stage）: AIの応答をパースできなかった回数</li>
+ * </ul>
+ */
+@Component
+public class SuggestMetrics {
+
+    /**
+     * レシピ提案の処理段階
+     */
+    public enum Phase {
+        /** プロンプトとリクエストボディの作成 */
+        PROMPT_BUILD("prompt_build", RequestTimings.PROMPT),
+        /** Bedrockの応答（エンベロープ）からのテキストの取り出し */
+        ENVELOPE_PARSE("envelope_parse", RequestTimings.PARSE),
+        /** 生成されたテキストからのレシピの組み立て */
+        RECIPE_PARSE("recipe_parse", RequestTimings.PARSE),
+        /** レシピの保存 */
+        PERSIST("persist", RequestTimings.PERSIST),
+        /** 保存したレシピのレスポンス形式への変換 */
+        RESPONSE_MAPPING("response_mapping", RequestTimings.SERIALIZE);
+
+        private final String tag;
+        private final String serverTiming;
+
+        Phase(String tag, String serverTiming) {
+            this.tag = tag;
+            this.serverTiming = serverTiming;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final String modelId;
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final DistributionSummary inputTokens;
+    private final DistributionSummary outputTokens;
+
+    public SuggestMetrics(MeterRegistry meterRegistry, @Value("${aws.bedrock.model-id}") String modelId) {
+        this.meterRegistry = meterRegistry;
+        this.modelId = modelId;
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("recipe.suggest.phase")
+                    .description("レシピ提案の処理段階ごとの所要時間")
+                    .tag("phase", phase.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.inputTokens = tokenSummary("input");
+        this.outputTokens = tokenSummary("output");
+    }
+
+    private DistributionSummary tokenSummary(String type) {
+        return DistributionSummary.builder("bedrock.tokens")
+                .description("Bedrockの1回の呼び出しで使用したトークン数")
+                .baseUnit("tokens")
+                .tags("model", modelId, "type", type)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10000.0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 処理段階の所要時間を記録します
+     *
+     * @param phase      処理段階
+     * @param startNanos 開始時の {@link System#nanoTime()}
+     * @param timings    リクエストの計測結果（null可）
+     */
+    public void recordPhase(Phase phase, long startNanos, RequestTimings timings) {
+        long nanos = System.nanoTime() - startNanos;
+        phaseTimers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+        if (timings != null) {
+            timings.record(phase.serverTiming, nanos);
+        }
+    }
+
+    /**
+     * Bedrockの呼び出しを実行し、所要時間を結果（成功・スロットリング・タイムアウトなど）ごとに記録します
+     *
+     * @param mode    呼び出し方法（{@code sync} または {@code stream}）
+     * @param timings リクエストの計測結果（null可）
+     * @param call    呼び出しを開始する処理
+     * @return 呼び出し結果で完了するFuture
+     */
+    public <T> CompletableFuture<T> timeBedrockCall(String mode, RequestTimings timings,
+            Supplier<CompletableFuture<T>> call) {
+        long startNanos = System.nanoTime();
+        return call.get().whenComplete((result, error) -> {
+            long nanos = System.nanoTime() - startNanos;
+            Timer.builder("bedrock.invoke")
+                    .description("Bedrockの呼び出し時間")
+                    .tags("model", modelId, "mode", mode, "outcome", outcome(error))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            if (timings != null) {
+                timings.record(RequestTimings.BEDROCK, nanos);
+            }
+        });
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CallNotPermittedException) {
+            return "short_circuited";
+        }
+        if (cause instanceof CancellationException) {
+            return "cancelled";
+        }
+        if (cause instanceof ThrottlingException) {
+            return "throttled";
+        }
+        if (cause instanceof ApiCallTimeoutException || cause instanceof ApiCallAttemptTimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+
+    /**
+     * Bedrockの応答に含まれるトークン使用量を記録します
+     */
+    public void recordTokens(int input, int output) {
+        if (input > 0) {
+            inputTokens.record(input);
+        }
+        if (output > 0) {
+            outputTokens.record(output);
+        }
+    }
+
+    /**
+     * Bedrockの生成が終了した理由を記録します
+     *
+     * @param mode       呼び出し方法（{@code sync} または {@code stream}）
+     * @param stopReason 終了した理由（null可）
+     */
+    public void countStopReason(String mode, String stopReason) {
+        Counter.builder("bedrock.stop.reason")
+                .description("Bedrockの生成が終了した理由ごとの回数")
+                .tags("model", modelId, "mode", mode, "reason", stopReason != null ? stopReason : "unknown")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * サンプルレシピを返したことを記録します
+     *
+     * @param endpoint 提案の種類（{@code suggest}・{@code batch}・{@code stream}）
+     * @param cause    フォールバックの原因
+     */
+    public void countFallback(String endpoint, Throwable cause) {
+        Counter.builder("recipe.suggest.fallback")
+                .description("AI生成の代わりにサンプルレシピを返した回数")
+                .tags("endpoint", endpoint, "reason", cause instanceof CallNotPermittedException ? "circuit_open" : "error")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * AIの応答をパースできなかったことを記録します
+     *
+     * @param stage パースの段階（{@code envelope} または {@code recipes}）
+     */
+    public void countParseFailure(String stage) {
+        Counter.builder("recipe.suggest.parse.failures")
+                .description("AIの応答をパースできなかった回数")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,138 @@
+package com.recipe.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipe.app.model.Recipe;
+import com.recipe.app.model.RecipeBody;
+import com.recipe.app.model.RecipeDocument;
+import com.recipe.app.repository.RecipeDocumentRepository;
+import com.recipe.app.repository.RecipeSummary;
+import com.recipe.app.service.RecipeStore;
+
+/**
+ * レシピを1行（recipe_documents、材料・手順・タグ・栄養情報はjsonb）に保存する保存先
+ *
+ * <p>読み込み・書き込みとも1テーブルの1行で完結します。返すレシピは永続化コンテキストに関連付けられていない
+ * （材料などを読み込み済みの）オブジェクトです。</p>
+ */
+public class DocumentRecipeStore implements RecipeStore {
+
+    private final RecipeDocumentRepository documentRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public DocumentRecipeStore(RecipeDocumentRepository documentRepository) {
+        this.documentRepository = documentRepository;
+    }
+
+    @Override
+    public Optional<Recipe> findById(long id) {
+        return documentRepository.findById(id).map(DocumentRecipeStore::toRecipe);
+    }
+
+    @Override
+    public List<Recipe> findByContentHashIn(Collection<String> contentHashes) {
+        return toRecipes(documentRepository.findByContentHashIn(contentHashes));
+    }
+
+    @Override
+    public List<Recipe> findByIdGreaterThanOrderByIdAsc(long afterId, int limit) {
+        return toRecipes(documentRepository.findByIdGreaterThanOrderByIdAsc(afterId,
+                Limit.of(limit)));
+    }
+
+    @Override
+    public List<RecipeSummary> findSummariesByDifficulty(Recipe.Difficulty difficulty, int maxCookingTime,
+            int afterCookingTime, long afterId, int limit) {
+        return documentRepository.findSummariesByDifficulty(difficulty, maxCookingTime, afterCookingTime, afterId,
+                Limit.of(limit));
+    }
+
+    @Override
+    public List<RecipeSummary> findSummariesByTag(String tag, long afterId, int limit) {
+        // GINインデックスでIDを絞り込んでから、概要の列を取得する
+        List<Long> ids = documentRepository.findIdsByBodyContaining(containment("tags", List.of(tag)), afterId, limit);
+        return ids.isEmpty() ? List.of() : documentRepository.findSummariesByIdIn(ids);
+    }
+
+    @Override
+    public List<RecipeSummary> findSummariesByIngredient(String ingredient, long afterId, int limit) {
+        // {"ingredients":[{"name":"卵"}]} は、nameが一致する材料を1つでも含む行に一致する
+        List<Long> ids = documentRepository.findIdsByBodyContaining(
+                containment("ingredients", List.of(Map.of("name", ingredient))), afterId, limit);
+        return ids.isEmpty() ? List.of() : documentRepository.findSummariesByIdIn(ids);
+    }
+
+    @Override
+    public void insertAll(List<Recipe> recipes) {
+        List<RecipeDocument> documents = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            documents.add(toDocument(recipe));
+        }
+        documentRepository.saveAll(documents);
+        for (int i = 0; i < recipes.size(); i++) {
+            recipes.get(i).setId(documents.get(i).getId());
+        }
+    }
+
+    private String containment(String field, Object value) {
+        try {
+            return objectMapper.writeValueAsString(Map.of(field, value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Recipe> toRecipes(List<RecipeDocument> documents) {
+        List<Recipe> recipes = new ArrayList<>(documents.size());
+        for (RecipeDocument document : documents) {
+            recipes.add(toRecipe(document));
+        }
+        return recipes;
+    }
+
+    private static Recipe toRecipe(RecipeDocument document) {
+        Recipe recipe = new Recipe();
+        recipe.setId(document.getId());
+        recipe.setTitle(document.getTitle());
+        recipe.setDescription(document.getDescription());
+        recipe.setCookingTime(document.getCookingTime());
+        recipe.setDifficulty(document.getDifficulty());
+        recipe.setServingSize(document.getServingSize());
+        recipe.setImageUrl(document.getImageUrl());
+        recipe.setContentHash(document.getContentHash());
+
+        RecipeBody body = document.getBody();
+        recipe.setIngredients(new ArrayList<>(body.getIngredients()));
+        recipe.setInstructions(new ArrayList<>(body.getInstructions()));
+        recipe.setTags(new ArrayList<>(body.getTags()));
+        recipe.setNutritionInfo(body.getNutritionInfo());
+        return recipe;
+    }
+
+    private static RecipeDocument toDocument(Recipe recipe) {
+        RecipeBody body = new RecipeBody();
+        body.setIngredients(new ArrayList<>(recipe.getIngredients()));
+        body.setInstructions(new ArrayList<>(recipe.getInstructions()));
+        body.setTags(new ArrayList<>(recipe.getTags()));
+        body.setNutritionInfo(recipe.getNutritionInfo());
+
+        RecipeDocument document = new RecipeDocument();
+        document.setTitle(recipe.getTitle());
+        document.setDescription(recipe.getDescription());
+        document.setCookingTime(recipe.getCookingTime());
+        document.setDifficulty(recipe.getDifficulty());
+        document.setServingSize(recipe.getServingSize());
+        document.setImageUrl(recipe.getImageUrl());
+        document.setContentHash(recipe.getContentHash());
+        document.setBody(body);
+        return document;
+    }
+}
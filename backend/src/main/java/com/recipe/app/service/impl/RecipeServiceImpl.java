@@ -1,25 +1,54 @@
 package com.recipe.app.service.impl;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipe.app.cache.SingleFlight;
+import com.recipe.app.cache.SingleFlightMetrics;
 import com.recipe.app.dto.RecipeRequest;
 import com.recipe.app.dto.RecipeResponse;
-import com.recipe.app.model.Ingredient;
-import com.recipe.app.model.NutritionInfo;
 import com.recipe.app.model.Recipe;
-import com.recipe.app.repository.RecipeRepository;
+import com.recipe.app.observability.RequestTimings;
+import com.recipe.app.pregeneration.PregeneratedRecipeStore;
+import com.recipe.app.pregeneration.SuggestDemandTracker;
+import com.recipe.app.resilience.BulkheadFullException;
+import com.recipe.app.resilience.CallNotPermittedException;
 import com.recipe.app.service.BedrockService;
+import com.recipe.app.service.FallbackRecipeProvider;
+import com.recipe.app.service.GenerationResult;
+import com.recipe.app.service.JsonObjectStreamSplitter;
+import com.recipe.app.service.RecipeGenerationCache;
+import com.recipe.app.service.RecipeJsonParser;
+import com.recipe.app.service.RecipeMapper;
+import com.recipe.app.service.RecipeRequestKey;
 import com.recipe.app.service.RecipeService;
+import com.recipe.app.service.RecipeStorageService;
+import com.recipe.app.service.RecipeStore;
+import com.recipe.app.service.SuggestMetrics;
+import com.recipe.app.service.SuggestMetrics.Phase;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * レシピサービスの実装クラス
@@ -27,444 +56,487 @@ import com.recipe.app.service.RecipeService;
 @Service
 public class RecipeServiceImpl implements RecipeService {
 
-    private final RecipeRepository recipeRepository;
+    private static final Logger log = LoggerFactory.getLogger(RecipeServiceImpl.class);
+
+    private final RecipeStore recipeStore;
+    private final RecipeStorageService recipeStorageService;
     private final BedrockService bedrockService;
-    private final ObjectMapper objectMapper;
+    private final RecipeGenerationCache generationCache;
+    private final RecipeMapper recipeMapper;
+    private final FallbackRecipeProvider fallbackRecipeProvider;
+    private final SingleFlight<RecipeRequestKey, RecipeResponse> inFlightSuggestions;
+    private final Duration coalescingTimeout;
+    private final Executor recipeTaskExecutor;
+    private final RecipeJsonParser recipeJsonParser;
+    private final int batchConcurrency;
+    private final SuggestMetrics suggestMetrics;
+    private final SuggestDemandTracker demandTracker;
+    private final PregeneratedRecipeStore pregeneratedStore;
     
     // コンストラクタインジェクション
-    public RecipeServiceImpl(RecipeRepository recipeRepository, BedrockService bedrockService) {
-        this.recipeRepository = recipeRepository;
+    public RecipeServiceImpl(RecipeStore recipeStore, RecipeStorageService recipeStorageService,
+            BedrockService bedrockService,
+            RecipeGenerationCache generationCache, RecipeMapper recipeMapper, RecipeJsonParser recipeJsonParser,
+            FallbackRecipeProvider fallbackRecipeProvider, SuggestMetrics suggestMetrics,
+            SuggestDemandTracker demandTracker, PregeneratedRecipeStore pregeneratedStore, MeterRegistry meterRegistry,
+            @Value("${app.suggest.coalescing.timeout-ms:70000}") long coalescingTimeoutMs,
+            @Value("${app.suggest.batch.concurrency:4}") int batchConcurrency,
+            @Qualifier("recipeTaskExecutor") Executor recipeTaskExecutor) {
+        this.recipeStore = recipeStore;
+        this.recipeStorageService = recipeStorageService;
         this.bedrockService = bedrockService;
-        this.objectMapper = new ObjectMapper();
+        this.generationCache = generationCache;
+        this.recipeMapper = recipeMapper;
+        this.recipeJsonParser = recipeJsonParser;
+        this.fallbackRecipeProvider = fallbackRecipeProvider;
+        this.suggestMetrics = suggestMetrics;
+        this.demandTracker = demandTracker;
+        this.pregeneratedStore = pregeneratedStore;
+        this.inFlightSuggestions = new SingleFlight<>();
+        SingleFlightMetrics.bind(meterRegistry, "recipe-suggest", inFlightSuggestions);
+        this.coalescingTimeout = Duration.ofMillis(coalescingTimeoutMs);
+        this.batchConcurrency = Math.max(1, batchConcurrency);
+        this.recipeTaskExecutor = recipeTaskExecutor;
     }
 
     /**
      * 指定された食材と条件から、おすすめのレシピを提案します
      *
+     * <p>AIの呼び出しは非同期で行い、パース・保存はレシピ処理用のスレッドプールで実行します。</p>
+     *
      * @param request レシピリクエスト情報
-     * @return レシピ提案のレスポンス
+     * @return レシピ提案のレスポンスで完了するFuture
      */
     @Override
-    public RecipeResponse suggestRecipes(RecipeRequest request) {
-        List<String> ingredients = request.getIngredients();
-        
-        try {
-            // 1. AIによるレシピ生成
-            String aiGeneratedRecipe = bedrockService.generateRecipe(
-                    ingredients, 
-                    request.getPreferences()
-            );
-            
-            // デバッグログ
-            System.out.println("AI生成レスポンス: " + aiGeneratedRecipe);
-            
-            // 2. AIレスポンスのパース（配列形式に対応）
-            List<Recipe> recipes = parseMultipleRecipes(aiGeneratedRecipe);
-            
-            // 3. データベースに保存
-            List<Recipe> savedRecipes = new ArrayList<>();
-            for (Recipe recipe : recipes) {
-                savedRecipes.add(recipeRepository.save(recipe));
-            }
-            
-            // 4. レスポンス作成
-            List<Map<String, Object>> recipeMaps = savedRecipes.stream()
-                    .map(this::convertToMap)
-                    .collect(Collectors.toList());
-            
-            Map<String, Object> data = new HashMap<>();
-            data.put("recipes", recipeMaps);
-            data.put("generationId", "gen-" + System.currentTimeMillis());
-            
-            return new RecipeResponse(true, data, null);
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("エラーの詳細: " + e.getMessage());
-            
-            // エラー発生時はサンプルデータを返す
-            List<Recipe> sampleRecipes = createSampleRecipes();
-            List<Recipe> savedRecipes = new ArrayList<>();
-            for (Recipe recipe : sampleRecipes) {
-                savedRecipes.add(recipeRepository.save(recipe));
-            }
-            
-            List<Map<String, Object>> recipeMaps = savedRecipes.stream()
-                    .map(this::convertToMap)
-                    .collect(Collectors.toList());
-                    
-            Map<String, Object> data = new HashMap<>();
-            data.put("recipes", recipeMaps);
-            data.put("generationId", "gen-" + System.currentTimeMillis());
-            
-            return new RecipeResponse(true, data, "AI生成でエラーが発生したため、サンプルレシピを返しました: " + e.getMessage());
-        }
+    public CompletableFuture<RecipeResponse> suggestRecipes(RecipeRequest request) {
+        RecipeRequestKey requestKey = RecipeRequestKey.from(request);
+        RequestTimings timings = RequestTimings.current();
+        demandTracker.record(requestKey);
+        
+        // 同じ食材・条件のリクエストが処理中であれば、その結果を共有する（処理時間は最初のリクエストに記録される）
+        return inFlightSuggestions.execute(
+                        requestKey,
+                        () -> generateAndSaveRecipes(request, requestKey, timings),
+                        coalescingTimeout
+                )
+                .exceptionallyAsync(error -> createFallbackResponse("suggest", error), recipeTaskExecutor);
     }
     
+    /**
+     * 複数の食材・条件に対するレシピ提案をまとめて行います
+     *
+     * <p>同じ食材・条件のリクエストは1回だけ生成し、AIの呼び出しは同時実行数を制限して行います。
+     * 生成できたレシピはすべて1つのトランザクションで保存します。
+     * 生成に失敗したリクエストには、サンプルレシピを {@code FALLBACK} として返します。</p>
+     *
+     * @param requests レシピリクエスト情報のリスト
+     * @return リクエストごとの結果（リクエストと同じ順序）を含むレスポンスで完了するFuture
+     */
     @Override
-    public RecipeResponse getRecipeById(String id) throws Exception {
-        try {
-            // IDを解析（文字列からLongに変換）
-            Long recipeId = Long.parseLong(id);
-            
-            // レシピの取得
-            Optional<Recipe> recipeOpt = recipeRepository.findById(recipeId);
-            
-            if (recipeOpt.isEmpty()) {
-                throw new Exception("指定されたIDのレシピが見つかりません: " + id);
+    public CompletableFuture<RecipeResponse> suggestRecipesBatch(List<RecipeRequest> requests) {
+        // 同じ食材・条件のリクエストをまとめる
+        Map<RecipeRequestKey, Integer> uniqueIndexes = new LinkedHashMap<>();
+        List<RecipeRequest> uniqueRequests = new ArrayList<>();
+        int[] itemToUnique = new int[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            RecipeRequestKey key = RecipeRequestKey.from(requests.get(i));
+            demandTracker.record(key);
+            Integer uniqueIndex = uniqueIndexes.get(key);
+            if (uniqueIndex == null) {
+                uniqueIndex = uniqueRequests.size();
+                uniqueIndexes.put(key, uniqueIndex);
+                uniqueRequests.add(requests.get(i));
             }
-            
-            Recipe recipe = recipeOpt.get();
-            
-            // レスポンス作成
-            Map<String, Object> recipeMap = convertToMap(recipe);
-            Map<String, Object> data = new HashMap<>();
-            data.put("recipe", recipeMap);
-            
-            return new RecipeResponse(true, data, null);
-            
-        } catch (NumberFormatException e) {
-            throw new Exception("無効なレシピIDの形式です: " + id);
-        } catch (Exception e) {
-            throw new Exception("レシピの取得中にエラーが発生しました: " + e.getMessage());
+            itemToUnique[i] = uniqueIndex;
         }
+        List<RecipeRequestKey> uniqueKeys = new ArrayList<>(uniqueIndexes.keySet());
+        RequestTimings timings = RequestTimings.current();
+        
+        // 同時実行数の数だけワーカーを起動し、各ワーカーは完了するたびに次のリクエストを生成する
+        AtomicReferenceArray<CompletableFuture<ParsedGeneration>> generations =
+                new AtomicReferenceArray<>(uniqueRequests.size());
+        AtomicInteger nextIndex = new AtomicInteger();
+        int workerCount = Math.min(batchConcurrency, uniqueRequests.size());
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+        for (int w = 0; w < workerCount; w++) {
+            workers[w] = generateNext(uniqueRequests, uniqueKeys, generations, nextIndex, timings);
+        }
+        
+        return CompletableFuture.allOf(workers)
+                .thenApplyAsync(ignored -> saveBatch(itemToUnique, generations, timings), recipeTaskExecutor)
+                .exceptionallyAsync(error -> createFallbackResponse("batch", error), recipeTaskExecutor);
     }
     
-    private List<Recipe> createSampleRecipes() {
-        List<Recipe> recipes = new ArrayList<>();
-        
-        // サンプルレシピ1
-        Recipe recipe1 = createSampleRecipe();
-        recipes.add(recipe1);
-        
-        // サンプルレシピ2
-        Recipe recipe2 = new Recipe();
-        recipe2.setTitle("肉じゃが");
-        recipe2.setDescription("ホクホクじゃがいもと甘辛い味付けが美味しい定番おかず");
-        
-        List<Ingredient> ingredients2 = new ArrayList<>();
-        
-        Ingredient ingredient1 = new Ingredient();
-        ingredient1.setName("牛肉");
-        ingredient1.setQuantity("200");
-        ingredient1.setUnit("g");
-        ingredient1.setNote("薄切り");
-        ingredients2.add(ingredient1);
-        
-        Ingredient ingredient2 = new Ingredient();
-        ingredient2.setName("じゃがいも");
-        ingredient2.setQuantity("3");
-        ingredient2.setUnit("個");
-        ingredient2.setNote("一口大に切る");
-        ingredients2.add(ingredient2);
-        
-        Ingredient ingredient3 = new Ingredient();
-        ingredient3.setName("人参");
-        ingredient3.setQuantity("1");
-        ingredient3.setUnit("本");
-        ingredient3.setNote("乱切り");
-        ingredients2.add(ingredient3);
-        
-        Ingredient ingredient4 = new Ingredient();
-        ingredient4.setName("玉ねぎ");
-        ingredient4.setQuantity("1");
-        ingredient4.setUnit("個");
-        ingredient4.setNote("くし切り");
-        ingredients2.add(ingredient4);
-        
-        recipe2.setIngredients(ingredients2);
-        recipe2.setInstructions(Arrays.asList(
-            "野菜を切る",
-            "牛肉を炒める",
-            "調味料と野菜を加えて煮込む",
-            "落し蓋をして20分煮る"
-        ));
-        recipe2.setCookingTime(30);
-        recipe2.setDifficulty(Recipe.Difficulty.EASY);
-        recipe2.setServingSize(3);
-        recipe2.setTags(Arrays.asList("和食", "煮物", "定番"));
-        
-        NutritionInfo nutritionInfo2 = new NutritionInfo();
-        nutritionInfo2.setCalories(420);
-        nutritionInfo2.setProtein("25g");
-        nutritionInfo2.setCarbs("45g");
-        nutritionInfo2.setFat("18g");
-        recipe2.setNutritionInfo(nutritionInfo2);
-        
-        recipes.add(recipe2);
-        
-        // サンプルレシピ3
-        Recipe recipe3 = new Recipe();
-        recipe3.setTitle("ポテトと鶏肉のガーリックソテー");
-        recipe3.setDescription("簡単なのに本格的な味わいのソテー");
-        
-        List<Ingredient> ingredients3 = new ArrayList<>();
-        
-        Ingredient ingredient31 = new Ingredient();
-        ingredient31.setName("鶏もも肉");
-        ingredient31.setQuantity("250");
-        ingredient31.setUnit("g");
-        ingredient31.setNote("一口大");
-        ingredients3.add(ingredient31);
-        
-        Ingredient ingredient32 = new Ingredient();
-        ingredient32.setName("じゃがいも");
-        ingredient32.setQuantity("2");
-        ingredient32.setUnit("個");
-        ingredient32.setNote("くし切り");
-        ingredients3.add(ingredient32);
-        
-        Ingredient ingredient33 = new Ingredient();
-        ingredient33.setName("にんにく");
-        ingredient33.setQuantity("2");
-        ingredient33.setUnit("片");
-        ingredient33.setNote("みじん切り");
-        ingredients3.add(ingredient33);
-        
-        recipe3.setIngredients(ingredients3);
-        recipe3.setInstructions(Arrays.asList(
-            "じゃがいもをレンジで3分加熱",
-            "フライパンでにんにくを炒める",
-            "鶏肉を加えて焼く",
-            "じゃがいもを加えて塩コショウで味付け"
-        ));
-        recipe3.setCookingTime(15);
-        recipe3.setDifficulty(Recipe.Difficulty.EASY);
-        recipe3.setServingSize(2);
-        recipe3.setTags(Arrays.asList("洋風", "ソテー", "スピード"));
-        
-        NutritionInfo nutritionInfo3 = new NutritionInfo();
-        nutritionInfo3.setCalories(380);
-        nutritionInfo3.setProtein("28g");
-        nutritionInfo3.setCarbs("25g");
-        nutritionInfo3.setFat("20g");
-        recipe3.setNutritionInfo(nutritionInfo3);
+    /**
+     * 未着手のリクエストを1件生成し、完了後に次のリクエストへ進みます
+     */
+    private CompletableFuture<Void> generateNext(List<RecipeRequest> requests, List<RecipeRequestKey> keys,
+            AtomicReferenceArray<CompletableFuture<ParsedGeneration>> generations, AtomicInteger nextIndex,
+            RequestTimings timings) {
+        int index = nextIndex.getAndIncrement();
+        if (index >= requests.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
         
-        recipes.add(recipe3);
+        CompletableFuture<ParsedGeneration> generation = generateRecipes(requests.get(index), keys.get(index), timings);
+        generations.set(index, generation);
         
-        return recipes;
+        // 失敗してもバッチ全体は止めず、結果の集計時にフォールバックとして扱う
+        return generation
+                .handle((result, error) -> null)
+                .thenCompose(ignored -> generateNext(requests, keys, generations, nextIndex, timings));
     }
     
-    private List<Recipe> parseMultipleRecipes(String aiResponse) throws Exception {
-        List<Recipe> recipes = new ArrayList<>();
+    /**
+     * 生成できたレシピをまとめて保存し、リクエストごとの結果を作成します
+     */
+    private RecipeResponse saveBatch(int[] itemToUnique,
+            AtomicReferenceArray<CompletableFuture<ParsedGeneration>> generations, RequestTimings timings) {
+        int uniqueCount = generations.length();
+        ParsedGeneration[] parsed = new ParsedGeneration[uniqueCount];
+        String[] errors = new String[uniqueCount];
+        List<Recipe> recipesToSave = new ArrayList<>();
+        
+        for (int u = 0; u < uniqueCount; u++) {
+            try {
+                parsed[u] = generations.get(u).join();
+                recipesToSave.addAll(parsed[u].recipes());
+            } catch (CompletionException e) {
+                Throwable cause = unwrap(e);
+                suggestMetrics.countFallback("batch", cause);
+                log.warn("一括提案の生成でエラーが発生しました: {}", cause.getMessage());
+                errors[u] = "AI生成でエラーが発生したため、サンプルレシピを返しました: " + cause.getMessage();
+            }
+        }
         
+        // すべての生成結果を1トランザクションでバッチINSERT
+        List<Recipe> savedRecipes = List.of();
+        long persistStartNanos = System.nanoTime();
         try {
-            // JSON配列をパース
-            JsonNode recipeArray = objectMapper.readTree(aiResponse);
-            System.out.println("パース後のJSON構造: " + recipeArray.getNodeType());
-            
-            // 配列の場合
-            if (recipeArray.isArray()) {
-                System.out.println("配列形式のレシピデータを検出: " + recipeArray.size() + "件");
-                for (JsonNode jsonNode : recipeArray) {
-                    Recipe recipe = parseRecipeJson(jsonNode);
-                    recipes.add(recipe);
+            savedRecipes = recipeStorageService.saveAll(recipesToSave);
+            suggestMetrics.recordPhase(Phase.PERSIST, persistStartNanos, timings);
+        } catch (RuntimeException e) {
+            log.error("一括提案の保存でエラーが発生しました", e);
+            for (int u = 0; u < uniqueCount; u++) {
+                if (parsed[u] != null) {
+                    suggestMetrics.countFallback("batch", e);
+                    parsed[u] = null;
+                    errors[u] = "レシピの保存でエラーが発生したため、サンプルレシピを返しました: " + e.getMessage();
                 }
-            } 
-            // 単一のオブジェクトの場合
-            else {
-                System.out.println("単一オブジェクト形式のレシピデータを検出");
-                Recipe recipe = parseRecipeJson(recipeArray);
-                recipes.add(recipe);
             }
-            
-            System.out.println("パース完了: " + recipes.size() + "件のレシピを抽出");
-            return recipes;
-        } catch (Exception e) {
-            System.err.println("JSON解析エラー: " + e.getMessage());
-            e.printStackTrace();
-            throw new Exception("レシピのパースに失敗しました: " + e.getMessage());
         }
-    }
-    
-    private Recipe parseRecipeJson(JsonNode jsonNode) throws Exception {
-        Recipe recipe = new Recipe();
-        recipe.setTitle(jsonNode.get("title").asText());
-        recipe.setDescription(jsonNode.get("description").asText());
         
-        // 材料の設定
-        List<Ingredient> ingredients = new ArrayList<>();
-        JsonNode ingredientNodes = jsonNode.get("ingredients");
-        for (JsonNode ingredientNode : ingredientNodes) {
-            Ingredient ingredient = new Ingredient();
-            ingredient.setName(ingredientNode.get("name").asText());
-            ingredient.setQuantity(ingredientNode.get("quantity").asText());
-            
-            // unitフィールドの処理（nullの場合があるため）
-            if (ingredientNode.has("unit") && !ingredientNode.get("unit").isNull()) {
-                ingredient.setUnit(ingredientNode.get("unit").asText());
-            } else {
-                ingredient.setUnit("");
-            }
-            
-            // noteフィールドの処理（オプショナル）
-            if (ingredientNode.has("note") && !ingredientNode.get("note").isNull()) {
-                ingredient.setNote(ingredientNode.get("note").asText());
+        // 保存結果は保存前と同じ順序なので、生成ごとの件数で切り分ける
+        long mappingStartNanos = System.nanoTime();
+        List<List<Map<String, Object>>> recipeMaps = new ArrayList<>(uniqueCount);
+        int offset = 0;
+        for (int u = 0; u < uniqueCount; u++) {
+            if (parsed[u] == null) {
+                recipeMaps.add(null);
+                continue;
             }
-            
-            ingredients.add(ingredient);
+            int size = parsed[u].recipes().size();
+            recipeMaps.add(toMaps(savedRecipes.subList(offset, offset + size)));
+            offset += size;
         }
-        recipe.setIngredients(ingredients);
-        
-        // 手順の設定
-        List<String> instructions = new ArrayList<>();
-        JsonNode instructionNodes = jsonNode.get("instructions");
-        for (JsonNode instructionNode : instructionNodes) {
-            String instruction = instructionNode.asText();
-            
-            // 手順の番号フォーマット（1., 1.1., Step 1:など）を削除
-            instruction = instruction.replaceAll("^\\s*\\d+\\.\\d+\\.\\s*", ""); // 1.1. 形式を削除
-            instruction = instruction.replaceAll("^\\s*\\d+\\.\\s*", "");  // 1. 形式を削除
-            instruction = instruction.replaceAll("^\\s*Step\\s+\\d+[:\\. ]*\\s*", ""); // Step 1: 形式を削除
+        suggestMetrics.recordPhase(Phase.RESPONSE_MAPPING, mappingStartNanos, timings);
+        
+        List<Map<String, Object>> fallbackRecipes = null;
+        boolean[] seen = new boolean[uniqueCount];
+        List<Map<String, Object>> items = new ArrayList<>(itemToUnique.length);
+        for (int i = 0; i < itemToUnique.length; i++) {
+            int u = itemToUnique[i];
+            Map<String, Object> item = new HashMap<>();
+            item.put("index", i);
+            item.put("deduplicated", seen[u]);
+            seen[u] = true;
             
-            // 先頭の空白を削除
-            instruction = instruction.trim();
-            
-            // 最初の文字を大文字に（あれば）
-            if (!instruction.isEmpty()) {
-                instruction = Character.toUpperCase(instruction.charAt(0)) + instruction.substring(1);
+            if (parsed[u] != null) {
+                item.put("status", "SUCCESS");
+                item.put("recipes", recipeMaps.get(u));
+            } else {
+                if (fallbackRecipes == null) {
+                    fallbackRecipes = fallbackRecipeProvider.getRecipes();
+                }
+                item.put("status", "FALLBACK");
+                item.put("recipes", fallbackRecipes);
+                item.put("message", errors[u]);
             }
-            
-            instructions.add(instruction);
+            items.add(item);
         }
-        recipe.setInstructions(instructions);
         
-        recipe.setCookingTime(jsonNode.get("cookingTime").asInt());
-        recipe.setDifficulty(Recipe.Difficulty.valueOf(jsonNode.get("difficulty").asText()));
-        recipe.setServingSize(jsonNode.get("servingSize").asInt());
+        Map<String, Object> data = new HashMap<>();
+        data.put("items", items);
+        data.put("uniqueRequests", uniqueCount);
+        data.put("generationId", "batch-" + System.currentTimeMillis());
         
-        // タグの設定
-        List<String> tags = new ArrayList<>();
-        JsonNode tagNodes = jsonNode.get("tags");
-        for (JsonNode tagNode : tagNodes) {
-            tags.add(tagNode.asText());
+        return new RecipeResponse(true, data, null);
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+    
+    /**
+     * エラー発生時のレスポンス（サンプルレシピ）を作成します
+     *
+     * <p>Bedrockの同時実行数の上限による拒否はフォールバックせず、そのまま呼び出し元に返します
+     * （429 Too Many Requestsとして応答するため）。サーキットブレーカーが開いていて呼び出さなかった場合は、
+     * 待たずにサンプルレシピを返します。</p>
+     */
+    private RecipeResponse createFallbackResponse(String endpoint, Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof BulkheadFullException overloaded) {
+            throw overloaded;
         }
-        recipe.setTags(tags);
-        
-        // 栄養情報があれば設定（オプション）
-        if (jsonNode.has("nutritionInfo") && !jsonNode.get("nutritionInfo").isNull()) {
-            JsonNode nutritionNode = jsonNode.get("nutritionInfo");
-            NutritionInfo nutritionInfo = new NutritionInfo();
-            
-            if (nutritionNode.has("calories") && !nutritionNode.get("calories").isNull()) {
-                nutritionInfo.setCalories(nutritionNode.get("calories").asInt());
-            }
-            if (nutritionNode.has("protein") && !nutritionNode.get("protein").isNull()) {
-                nutritionInfo.setProtein(nutritionNode.get("protein").asText());
-            }
-            if (nutritionNode.has("carbs") && !nutritionNode.get("carbs").isNull()) {
-                nutritionInfo.setCarbs(nutritionNode.get("carbs").asText());
-            }
-            if (nutritionNode.has("fat") && !nutritionNode.get("fat").isNull()) {
-                nutritionInfo.setFat(nutritionNode.get("fat").asText());
-            }
-            
-            recipe.setNutritionInfo(nutritionInfo);
+        suggestMetrics.countFallback(endpoint, cause);
+        if (cause instanceof CallNotPermittedException) {
+            // 障害中は呼び出しごとにスタックトレースを出さない
+            log.warn("AI生成を省略しました: {}", cause.getMessage());
+            return fallbackRecipeProvider.createResponse("AIが一時的に利用できないため、サンプルレシピを返しました");
         }
+        log.error("AI生成でエラーが発生しました", cause);
         
-        return recipe;
+        // エラー発生時はサンプルデータを返す（保存済みのデータを再利用し、DBへの書き込みは行わない）
+        return fallbackRecipeProvider.createResponse("AI生成でエラーが発生したため、サンプルレシピを返しました: " + cause.getMessage());
     }
     
-    private Recipe createSampleRecipe() {
-        Recipe recipe = new Recipe();
-        recipe.setTitle("鶏肉と野菜の簡単煮物");
-        recipe.setDescription("ほくほくじゃがいもと柔らかい鶏肉の優しい味わい");
-        
-        // 材料の設定
-        List<Ingredient> ingredients = new ArrayList<>();
-        
-        Ingredient ingredient1 = new Ingredient();
-        ingredient1.setName("鶏もも肉");
-        ingredient1.setQuantity("300");
-        ingredient1.setUnit("g");
-        ingredient1.setNote("一口大に切る");
-        ingredients.add(ingredient1);
-        
-        Ingredient ingredient2 = new Ingredient();
-        ingredient2.setName("じゃがいも");
-        ingredient2.setQuantity("2");
-        ingredient2.setUnit("個");
-        ingredient2.setNote("4等分に切る");
-        ingredients.add(ingredient2);
-        
-        Ingredient ingredient3 = new Ingredient();
-        ingredient3.setName("人参");
-        ingredient3.setQuantity("1");
-        ingredient3.setUnit("本");
-        ingredient3.setNote("乱切り");
-        ingredients.add(ingredient3);
-        
-        recipe.setIngredients(ingredients);
-        
-        // 手順の設定
-        recipe.setInstructions(Arrays.asList(
-            "鶏肉を一口大に切ります",
-            "じゃがいもは皮をむき、4等分に切ります",
-            "人参は乱切りにします",
-            "鍋に調味料と水を入れて沸騰させます",
-            "具材を入れて中火で15分煮込みます"
-        ));
-        
-        // その他の情報
-        recipe.setCookingTime(25);
-        recipe.setDifficulty(Recipe.Difficulty.EASY);
-        recipe.setServingSize(2);
-        recipe.setTags(Arrays.asList("和食", "煮物", "晩ごはん"));
-        
-        // 栄養情報
-        NutritionInfo nutritionInfo = new NutritionInfo();
-        nutritionInfo.setCalories(450);
-        nutritionInfo.setProtein("28g");
-        nutritionInfo.setCarbs("30g");
-        nutritionInfo.setFat("22g");
-        recipe.setNutritionInfo(nutritionInfo);
+    /**
+     * 指定された食材と条件から、おすすめのレシピをストリーミングで提案します
+     *
+     * <p>AIの出力からレシピが1件完成するごとに、保存したうえで {@code recipeConsumer} に渡します。
+     * 1件も生成できなかった場合はサンプルレシピを渡します。</p>
+     *
+     * @param request        レシピリクエスト情報
+     * @param recipeConsumer 保存済みのレシピを受け取る処理（レシピ処理用スレッドから呼ばれます）
+     * @return 渡したレシピの件数で完了するFuture。キャンセルするとBedrockのストリームも中止します
+     */
+    @Override
+    public CompletableFuture<Integer> streamRecipes(RecipeRequest request, Consumer<Map<String, Object>> recipeConsumer) {
+        RecipeRequestKey cacheKey = RecipeRequestKey.from(request);
+        RequestTimings timings = RequestTimings.current();
+        demandTracker.record(cacheKey);
+        
+        // キャッシュか事前生成の結果があれば、その結果をまとめて渡す
+        String cachedRecipes = findGeneratedRecipes(cacheKey);
+        if (cachedRecipes != null) {
+            return CompletableFuture.supplyAsync(() -> {
+                AtomicInteger emittedCount = new AtomicInteger();
+                JsonObjectStreamSplitter splitter = new JsonObjectStreamSplitter(recipeJson -> {
+                    if (saveAndEmitRecipe(recipeJson, recipeConsumer, timings)) {
+                        emittedCount.incrementAndGet();
+                    }
+                });
+                splitter.feed(cachedRecipes);
+                return emittedCount.get();
+            }, recipeTaskExecutor);
+        }
         
-        return recipe;
+        StringBuilder generatedText = new StringBuilder();
+        AtomicInteger emittedCount = new AtomicInteger();
+        AtomicInteger failedCount = new AtomicInteger();
+        AtomicReference<CompletableFuture<Void>> pending = new AtomicReference<>(CompletableFuture.completedFuture(null));
+        
+        // オブジェクトが閉じるたびに、パース・保存を順番に実行する
+        JsonObjectStreamSplitter splitter = new JsonObjectStreamSplitter(recipeJson ->
+                pending.updateAndGet(previous -> previous.thenRunAsync(() -> {
+                    if (saveAndEmitRecipe(recipeJson, recipeConsumer, timings)) {
+                        emittedCount.incrementAndGet();
+                    } else {
+                        failedCount.incrementAndGet();
+                    }
+                }, recipeTaskExecutor)));
+        
+        CompletableFuture<Void> generation = bedrockService.generateRecipeStream(request.getIngredients(),
+                request.getPreferences(), timings, text -> {
+                    generatedText.append(text);
+                    splitter.feed(text);
+                });
+        CompletableFuture<Integer> result = generation
+                .thenCompose(ignored -> pending.get())
+                .handleAsync((ignored, error) -> {
+                    if (unwrap(error) instanceof BulkheadFullException overloaded) {
+                        throw overloaded;
+                    }
+                    if (error != null) {
+                        log.warn("ストリーミング生成でエラーが発生しました: {}", error.getMessage());
+                    } else if (failedCount.get() == 0 && emittedCount.get() > 0) {
+                        generationCache.put(cacheKey, generatedText.toString());
+                    }
+                    
+                    if (emittedCount.get() > 0) {
+                        return emittedCount.get();
+                    }
+                    
+                    // 1件も生成できなかった場合はサンプルデータを返す
+                    suggestMetrics.countFallback("stream", unwrap(error));
+                    List<Map<String, Object>> sampleRecipes = fallbackRecipeProvider.getRecipes();
+                    sampleRecipes.forEach(recipeConsumer);
+                    return sampleRecipes.size();
+                }, recipeTaskExecutor);
+        
+        // 呼び出し元がキャンセルした場合（クライアントの切断など）は、Bedrockのストリームも中止する
+        result.whenComplete((count, error) -> {
+            if (result.isCancelled()) {
+                generation.cancel(true);
+            }
+        });
+        return result;
     }
     
-    private Map<String, Object> convertToMap(Recipe recipe) {
-        // 材料の変換
-        List<Map<String, Object>> ingredientMaps = recipe.getIngredients().stream()
-            .map(i -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("name", i.getName());
-                map.put("quantity", i.getQuantity());
-                map.put("unit", i.getUnit());
-                map.put("note", i.getNote() != null ? i.getNote() : "");
-                return map;
-            })
-            .collect(Collectors.toList());
-        
-        // 栄養情報の変換
-        Map<String, Object> nutritionMap = null;
-        if (recipe.getNutritionInfo() != null) {
-            nutritionMap = new HashMap<>();
-            nutritionMap.put("calories", recipe.getNutritionInfo().getCalories());
-            nutritionMap.put("protein", recipe.getNutritionInfo().getProtein());
-            nutritionMap.put("carbs", recipe.getNutritionInfo().getCarbs());
-            nutritionMap.put("fat", recipe.getNutritionInfo().getFat());
+    /**
+     * レシピ1件分のJSONをパース・保存し、呼び出し元に渡します
+     *
+     * @return 成功した場合はtrue
+     */
+    private boolean saveAndEmitRecipe(String recipeJson, Consumer<Map<String, Object>> recipeConsumer,
+            RequestTimings timings) {
+        Recipe recipe;
+        long parseStartNanos = System.nanoTime();
+        try {
+            recipe = recipeJsonParser.parseRecipes(recipeJson).get(0);
+            suggestMetrics.recordPhase(Phase.RECIPE_PARSE, parseStartNanos, timings);
+        } catch (Exception e) {
+            suggestMetrics.countParseFailure("recipes");
+            log.warn("レシピのパースに失敗しました: {}", e.getMessage());
+            return false;
         }
         
-        // レシピ情報の構築
-        Map<String, Object> recipeMap = new HashMap<>();
-        recipeMap.put("id", recipe.getId().toString());
-        recipeMap.put("title", recipe.getTitle());
-        recipeMap.put("description", recipe.getDescription());
-        recipeMap.put("ingredients", ingredientMaps);
-        recipeMap.put("instructions", recipe.getInstructions());
-        recipeMap.put("cookingTime", recipe.getCookingTime());
-        recipeMap.put("difficulty", recipe.getDifficulty().name());
-        recipeMap.put("servingSize", recipe.getServingSize());
-        recipeMap.put("tags", recipe.getTags());
-        
-        if (nutritionMap != null) {
-            recipeMap.put("nutritionInfo", nutritionMap);
+        Recipe savedRecipe;
+        long persistStartNanos = System.nanoTime();
+        try {
+            savedRecipe = recipeStorageService.save(recipe);
+            suggestMetrics.recordPhase(Phase.PERSIST, persistStartNanos, timings);
+        } catch (RuntimeException e) {
+            log.error("レシピの保存に失敗しました", e);
+            return false;
         }
         
-        if (recipe.getImageUrl() != null) {
-            recipeMap.put("imageUrl", recipe.getImageUrl());
+        long mappingStartNanos = System.nanoTime();
+        Map<String, Object> recipeMap = recipeMapper.convertToMap(savedRecipe);
+        suggestMetrics.recordPhase(Phase.RESPONSE_MAPPING, mappingStartNanos, timings);
+        recipeConsumer.accept(recipeMap);
+        return true;
+    }
+    
+    /**
+     * AIでレシピを生成し、保存したうえでレスポンスを作成します
+     */
+    private CompletableFuture<RecipeResponse> generateAndSaveRecipes(RecipeRequest request, RecipeRequestKey cacheKey,
+            RequestTimings timings) {
+        return generateRecipes(request, cacheKey, timings)
+                .thenApplyAsync(generation -> saveGeneratedRecipes(generation, timings), recipeTaskExecutor);
+    }
+    
+    /**
+     * AIでレシピを生成し、パースします（保存はしません）
+     *
+     * <p>同じ食材・条件の組み合わせはキャッシュ（または事前生成の結果）を利用し、
+     * パースできた生成結果のみキャッシュします。</p>
+     */
+    private CompletableFuture<ParsedGeneration> generateRecipes(RecipeRequest request, RecipeRequestKey cacheKey,
+            RequestTimings timings) {
+        String cachedRecipes = findGeneratedRecipes(cacheKey);
+        boolean cached = cachedRecipes != null;
+        CompletableFuture<GenerationResult> generation = cached
+                ? CompletableFuture.completedFuture(new GenerationResult(cachedRecipes, 0, 0))
+                : bedrockService.generateRecipe(request.getIngredients(), request.getPreferences(), timings);
+        
+        return generation.thenApplyAsync(result -> {
+            // 配列形式・単一オブジェクトに対応
+            List<Recipe> recipes;
+            long parseStartNanos = System.nanoTime();
+            try {
+                recipes = recipeJsonParser.parseRecipes(result.text());
+                suggestMetrics.recordPhase(Phase.RECIPE_PARSE, parseStartNanos, timings);
+            } catch (IOException e) {
+                suggestMetrics.countParseFailure("recipes");
+                throw new CompletionException(new Exception("レシピのパースに失敗しました: " + e.getMessage(), e));
+            }
+            log.debug("パース完了: {}件のレシピを抽出（キャッシュ: {}）", recipes.size(), cached);
+            
+            if (!cached) {
+                generationCache.put(cacheKey, result.text());
+            }
+            return new ParsedGeneration(recipes, result, cached);
+        }, recipeTaskExecutor);
+    }
+    
+    /**
+     * キャッシュ、なければ事前生成の結果から生成済みのテキストを取得します
+     *
+     * @return AIが生成したテキスト。どちらにもない場合はnull
+     */
+    private String findGeneratedRecipes(RecipeRequestKey key) {
+        String cachedRecipes = generationCache.get(key);
+        return cachedRecipes != null ? cachedRecipes : pregeneratedStore.get(key);
+    }
+    
+    /**
+     * パースしたレシピを保存し、レスポンスを作成します
+     */
+    private RecipeResponse saveGeneratedRecipes(ParsedGeneration generation, RequestTimings timings) {
+        // データベースに保存（1トランザクションでバッチINSERT）
+        long persistStartNanos = System.nanoTime();
+        List<Recipe> savedRecipes = recipeStorageService.saveAll(generation.recipes());
+        suggestMetrics.recordPhase(Phase.PERSIST, persistStartNanos, timings);
+        
+        long mappingStartNanos = System.nanoTime();
+        Map<String, Object> data = new HashMap<>();
+        data.put("recipes", toMaps(savedRecipes));
+        suggestMetrics.recordPhase(Phase.RESPONSE_MAPPING, mappingStartNanos, timings);
+        data.put("generationId", "gen-" + System.currentTimeMillis());
+        
+        // AIを呼び出した場合は、そのリクエストのトークン使用量を返す
+        if (!generation.cached()) {
+            Map<String, Object> usage = new HashMap<>();
+            usage.put("inputTokens", generation.result().inputTokens());
+            usage.put("outputTokens", generation.result().outputTokens());
+            data.put("usage", usage);
         }
         
-        return recipeMap;
+        return new RecipeResponse(true, data, null);
+    }
+    
+    private List<Map<String, Object>> toMaps(List<Recipe> recipes) {
+        return recipes.stream()
+                .map(recipeMapper::convertToMap)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public RecipeResponse getRecipeById(String id) throws Exception {
+        try {
+            // IDを解析（文字列からLongに変換）
+            Long recipeId = Long.parseLong(id);
+            
+            // レシピの取得
+            Optional<Recipe> recipeOpt = recipeStore.findById(recipeId);
+            
+            if (recipeOpt.isEmpty()) {
+                throw new Exception("指定されたIDのレシピが見つかりません: " + id);
+            }
+            
+            Recipe recipe = recipeOpt.get();
+            
+            // レスポンス作成
+            Map<String, Object> recipeMap = recipeMapper.convertToMap(recipe);
+            Map<String, Object> data = new HashMap<>();
+            data.put("recipe", recipeMap);
+            
+            return new RecipeResponse(true, data, null);
+            
+        } catch (NumberFormatException e) {
+            throw new Exception("無効なレシピIDの形式です: " + id);
+        } catch (Exception e) {
+            throw new Exception("レシピの取得中にエラーが発生しました: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * パース済みの生成結果
+     */
+    private record ParsedGeneration(List<Recipe> recipes, GenerationResult result, boolean cached) {
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package com.recipe.app.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Limit;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.repository.RecipeRepository;
+import com.recipe.app.repository.RecipeSummary;
+import com.recipe.app.service.RecipeStore;
+
+/**
+ * レシピ本体と材料・手順・タグを別テーブル（recipes・recipe_ingredients・recipe_instructions・recipe_tags）に
+ * 保存する保存先
+ */
+public class RelationalRecipeStore implements RecipeStore {
+
+    private final RecipeRepository recipeRepository;
+
+    public RelationalRecipeStore(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    public Optional<Recipe> findById(long id) {
+        return recipeRepository.findById(id);
+    }
+
+    @Override
+    public List<Recipe> findByContentHashIn(Collection<String> contentHashes) {
+        // トランザクションの外で変換されるため、コレクションを読み込んでおく（バッチフェッチ）
+        List<Recipe> recipes = recipeRepository.findByContentHashIn(contentHashes);
+        for (Recipe recipe : recipes) {
+            Hibernate.initialize(recipe.getIngredients());
+            Hibernate.initialize(recipe.getInstructions());
+            Hibernate.initialize(recipe.getTags());
+        }
+        return recipes;
+    }
+
+    @Override
+    public List<Recipe> findByIdGreaterThanOrderByIdAsc(long afterId, int limit) {
+        return recipeRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<RecipeSummary> findSummariesByDifficulty(Recipe.Difficulty difficulty, int maxCookingTime,
+            int afterCookingTime, long afterId, int limit) {
+        return recipeRepository.findSummariesByDifficulty(difficulty, maxCookingTime, afterCookingTime, afterId,
+                Limit.of(limit));
+    }
+
+    @Override
+    public List<RecipeSummary> findSummariesByTag(String tag, long afterId, int limit) {
+        return recipeRepository.findSummariesByTag(tag, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<RecipeSummary> findSummariesByIngredient(String ingredient, long afterId, int limit) {
+        return recipeRepository.findSummariesByIngredient(ingredient, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public void insertAll(List<Recipe> recipes) {
+        recipeRepository.saveAll(recipes);
+    }
+}
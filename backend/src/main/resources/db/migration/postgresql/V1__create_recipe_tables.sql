@@ -0,0 +1,53 @@
+-- レシピ関連のテーブル
+-- ddl-auto（update）で作成済みのDBにも適用できるよう、既存のオブジェクトはそのまま残す
+
+CREATE SEQUENCE IF NOT EXISTS recipe_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS recipes (
+    id            BIGINT       NOT NULL,
+    title         VARCHAR(255),
+    description   VARCHAR(255),
+    cooking_time  INTEGER,
+    difficulty    VARCHAR(255) CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    serving_size  INTEGER,
+    calories      INTEGER,
+    protein       VARCHAR(255),
+    carbs         VARCHAR(255),
+    fat           VARCHAR(255),
+    image_url     VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS recipe_ingredients (
+    recipe_id  BIGINT NOT NULL REFERENCES recipes (id),
+    name       VARCHAR(255),
+    quantity   VARCHAR(255),
+    unit       VARCHAR(255),
+    note       VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS recipe_instructions (
+    recipe_id         BIGINT NOT NULL REFERENCES recipes (id),
+    instruction_step  VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS recipe_tags (
+    recipe_id  BIGINT NOT NULL REFERENCES recipes (id),
+    tag        VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_recipe_title ON recipes (title);
+CREATE INDEX IF NOT EXISTS idx_recipe_difficulty_time_id ON recipes (difficulty, cooking_time, id);
+CREATE INDEX IF NOT EXISTS idx_ingredient_name ON recipe_ingredients (name);
+CREATE INDEX IF NOT EXISTS idx_recipe_tag_recipe ON recipe_tags (tag, recipe_id);
+
+-- コレクションの読み込み（recipe_id IN (...)）用
+CREATE INDEX IF NOT EXISTS idx_recipe_ingredients_recipe ON recipe_ingredients (recipe_id);
+CREATE INDEX IF NOT EXISTS idx_recipe_instructions_recipe ON recipe_instructions (recipe_id);
+CREATE INDEX IF NOT EXISTS idx_recipe_tags_recipe ON recipe_tags (recipe_id);
+
+-- IDENTITY採番の頃に作成された行とIDが重ならないよう、シーケンスを既存の最大IDより先に進める
+-- （稼働中の他のタスクが確保済みの範囲を戻さないよう、現在値より小さくはしない）
+SELECT setval('recipe_seq', GREATEST(MAX(id), (SELECT last_value FROM recipe_seq)))
+FROM recipes
+HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,23 @@
+-- レシピ提案の事前生成用のテーブル
+
+-- 食材・条件の組み合わせごとの受付回数（事前生成の対象の選定に使う）
+CREATE TABLE IF NOT EXISTS suggest_request_stats (
+    key_hash           VARCHAR(64)                 NOT NULL,
+    request_key        TEXT                        NOT NULL,
+    request_count      BIGINT                      NOT NULL,
+    last_requested_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (key_hash)
+);
+
+CREATE INDEX IF NOT EXISTS idx_suggest_request_stats_last_requested ON suggest_request_stats (last_requested_at);
+
+-- 事前生成した提案（AIが生成したテキスト）
+CREATE TABLE IF NOT EXISTS pregenerated_suggestions (
+    key_hash       VARCHAR(64)                 NOT NULL,
+    request_key    TEXT                        NOT NULL,
+    generated_text TEXT                        NOT NULL,
+    input_tokens   INTEGER                     NOT NULL,
+    output_tokens  INTEGER                     NOT NULL,
+    generated_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (key_hash)
+);
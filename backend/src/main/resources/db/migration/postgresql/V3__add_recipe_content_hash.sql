@@ -0,0 +1,6 @@
+-- 同じ内容のレシピの重複保存を防ぐための内容の指紋
+-- 既存の行はNULLのまま（一意制約はNULL同士では重複とみなさない）
+
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_recipe_content_hash ON recipes (content_hash);
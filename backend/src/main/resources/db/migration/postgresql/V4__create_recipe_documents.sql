@@ -0,0 +1,24 @@
+-- ドキュメント形式（app.recipe-storage.mode: document）のレシピのテーブル
+-- 材料・手順・タグ・栄養情報は body（jsonb）にまとめて保存する
+-- 既存のレシピの移行は scripts/recipe-storage/backfill-documents.sql で行う（保存形式を切り替えるときに実行）
+
+CREATE TABLE IF NOT EXISTS recipe_documents (
+    id            BIGINT       NOT NULL,
+    title         VARCHAR(255),
+    description   VARCHAR(255),
+    cooking_time  INTEGER,
+    difficulty    VARCHAR(255) CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    serving_size  INTEGER,
+    image_url     VARCHAR(255),
+    content_hash  VARCHAR(64),
+    body          JSONB        NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_recipe_document_title ON recipe_documents (title);
+CREATE INDEX IF NOT EXISTS idx_recipe_document_difficulty_time_id ON recipe_documents (difficulty, cooking_time, id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_recipe_document_content_hash ON recipe_documents (content_hash);
+
+-- 材料（{"ingredients":[{"name":"卵"}]}）・タグ（{"tags":["和食"]}）の包含検索（@>）用
+-- jsonb_path_ops は @> のみに対応する代わりに、既定の jsonb_ops より小さく更新も軽い
+CREATE INDEX IF NOT EXISTS idx_recipe_document_body ON recipe_documents USING GIN (body jsonb_path_ops);
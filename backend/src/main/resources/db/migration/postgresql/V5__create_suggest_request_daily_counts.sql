@@ -0,0 +1,9 @@
+-- 食材・条件の組み合わせごとの日別の受付回数（事前生成の対象を直近の期間の受付回数で選ぶ）
+CREATE TABLE IF NOT EXISTS suggest_request_daily_counts (
+    key_hash       VARCHAR(64) NOT NULL,
+    request_date   DATE        NOT NULL,
+    request_count  BIGINT      NOT NULL,
+    PRIMARY KEY (key_hash, request_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_suggest_request_daily_counts_date ON suggest_request_daily_counts (request_date);
@@ -0,0 +1,84 @@
+package com.recipe.app.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void coalescesConcurrentCallsForSameKey() {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> leader = singleFlight.execute("卵", () -> {
+            loads.incrementAndGet();
+            return load;
+        }, TIMEOUT);
+        CompletableFuture<String> follower = singleFlight.execute("卵", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("別の結果");
+        }, TIMEOUT);
+        CompletableFuture<String> other = singleFlight.execute("鶏肉", () -> CompletableFuture.completedFuture("鶏肉"),
+                TIMEOUT);
+
+        assertThat(singleFlight.inFlightCount()).isEqualTo(1);
+        load.complete("卵の結果");
+        assertThat(leader.join()).isEqualTo("卵の結果");
+        assertThat(follower.join()).isEqualTo("卵の結果");
+        assertThat(other.join()).isEqualTo("鶏肉");
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.executionCount()).isEqualTo(2);
+        assertThat(singleFlight.coalescedCount()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void followerTimeoutDoesNotAffectLeaderOrLaterCalls() {
+        CompletableFuture<String> load = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = singleFlight.execute("卵", () -> load, TIMEOUT);
+        CompletableFuture<String> follower = singleFlight.execute("卵", CompletableFuture::new, Duration.ofMillis(10));
+
+        assertThatThrownBy(follower::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        load.complete("卵の結果");
+        assertThat(leader.join()).isEqualTo("卵の結果");
+
+        // 完了後は新しい処理を実行する
+        assertThat(singleFlight.execute("卵", () -> CompletableFuture.completedFuture("再実行"), TIMEOUT).join())
+                .isEqualTo("再実行");
+        assertThat(singleFlight.executionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void bindsExecutionAndCoalescedCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlightMetrics.bind(registry, "test", singleFlight);
+        CompletableFuture<String> load = new CompletableFuture<>();
+
+        singleFlight.execute("卵", () -> load, TIMEOUT);
+        singleFlight.execute("卵", () -> load, TIMEOUT);
+
+        assertThat(registry.get("singleflight.calls").tags("name", "test", "result", "executed")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("singleflight.calls").tags("name", "test", "result", "coalesced")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("singleflight.in.flight").tag("name", "test").gauge().value()).isEqualTo(1);
+        load.complete("卵の結果");
+    }
+}
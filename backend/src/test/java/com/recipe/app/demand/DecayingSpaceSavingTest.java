@@ -0,0 +1,83 @@
+package com.recipe.app.demand;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.recipe.app.demand.DecayingSpaceSaving.Entry;
+
+class DecayingSpaceSavingTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private DecayingSpaceSaving<String> sketch(int capacity) {
+        return new DecayingSpaceSaving<>(capacity, Duration.ofHours(1), now::get);
+    }
+
+    @Test
+    void keepsHeavyHittersWithinFixedCapacity() {
+        // 合計250回のうち、250 / 10 回を超えて出現するキーは必ず追跡される
+        DecayingSpaceSaving<String> sketch = sketch(10);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("卵");
+            if (i % 2 == 0) {
+                sketch.add("玉ねぎ");
+            }
+            // 一度しか出現しないキーが多数あっても、上位のキーは追い出されない
+            sketch.add("食材" + i);
+        }
+
+        List<Entry<String>> top = sketch.top(2);
+        assertThat(top).extracting(Entry::key).containsExactly("卵", "玉ねぎ");
+        assertThat(sketch.size()).isEqualTo(10);
+        assertThat(sketch.total()).isCloseTo(250.0, within(1e-9));
+
+        // 推定回数は実際の回数以上、推定回数から誤差を引いた値は実際の回数以下になる
+        for (Entry<String> entry : top) {
+            double actual = entry.key().equals("卵") ? 100 : 50;
+            assertThat(entry.count()).isGreaterThanOrEqualTo(actual);
+            assertThat(entry.count() - entry.error()).isLessThanOrEqualTo(actual);
+        }
+    }
+
+    @Test
+    void decaysOldOccurrencesByHalfLife() {
+        DecayingSpaceSaving<String> sketch = sketch(10);
+        for (int i = 0; i < 8; i++) {
+            sketch.add("鶏肉");
+        }
+        now.addAndGet(Duration.ofHours(2).toNanos());
+        for (int i = 0; i < 3; i++) {
+            sketch.add("豆腐");
+        }
+
+        // 2時間（半減期2回分）で 8 → 2 になり、最近の豆腐（3）が上位になる
+        List<Entry<String>> top = sketch.top(10);
+        assertThat(top).extracting(Entry::key).containsExactly("豆腐", "鶏肉");
+        assertThat(top.get(1).count()).isCloseTo(2.0, within(1e-9));
+    }
+
+    @Test
+    void rescalesWithoutLosingOrderAfterLongIdlePeriods() {
+        DecayingSpaceSaving<String> sketch = sketch(10);
+        sketch.add("米");
+        sketch.add("米");
+        sketch.add("卵");
+
+        // 重みの指数が正規化の閾値を超える時間（半減期の100倍）が経過しても、最近の出現が正しく数えられる
+        now.addAndGet(Duration.ofHours(100).toNanos());
+        sketch.add("卵");
+        sketch.add("卵");
+        sketch.add("米");
+
+        List<Entry<String>> top = sketch.top(10);
+        assertThat(top).extracting(Entry::key).containsExactly("卵", "米");
+        assertThat(top.get(0).count()).isCloseTo(2.0, within(1e-9));
+        assertThat(top.get(1).count()).isCloseTo(1.0, within(1e-9));
+    }
+}
@@ -0,0 +1,65 @@
+package com.recipe.app.repository;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.recipe.app.model.Ingredient;
+import com.recipe.app.model.Recipe;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * H2でリポジトリを確認するテストの共通設定
+ *
+ * <p>マイグレーションはPostgreSQL用のみのため、H2ではエンティティからスキーマを作成します。
+ * 発行したSQLの数は {@link #statistics()} で確認できます。</p>
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+abstract class H2JpaTestSupport {
+
+    @Autowired
+    protected RecipeRepository recipeRepository;
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * 指定した材料・手順・タグを持つレシピ（調理時間20分・簡単・2人分）を作成します
+     */
+    protected static Recipe createRecipe(String title, List<String> ingredientNames, List<String> instructions,
+            List<String> tags) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setDescription(title + "の説明");
+        for (String name : ingredientNames) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setName(name);
+            ingredient.setQuantity("1");
+            ingredient.setUnit("個");
+            recipe.getIngredients().add(ingredient);
+        }
+        recipe.getInstructions().addAll(instructions);
+        recipe.getTags().addAll(tags);
+        recipe.setCookingTime(20);
+        recipe.setDifficulty(Recipe.Difficulty.EASY);
+        recipe.setServingSize(2);
+        return recipe;
+    }
+}
@@ -0,0 +1,50 @@
+package com.recipe.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import com.recipe.app.model.Recipe;
+
+/**
+ * 提案1回分（3レシピ）の保存にかかるDBラウンドトリップ数を計測します
+ *
+ * <p>変更前（IDENTITY採番・バッチなし）との比較は {@code docs/operations.md} のベンチマークの節を参照してください。</p>
+ */
+class RecipeBatchInsertTest extends H2JpaTestSupport {
+
+    private static final int RECIPES_PER_SUGGEST = 3;
+    private static final int INGREDIENTS_PER_RECIPE = 8;
+    private static final int STEPS_PER_RECIPE = 5;
+    private static final int TAGS_PER_RECIPE = 3;
+
+    @Test
+    void saveAllBatchesInsertsPerTable() {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < RECIPES_PER_SUGGEST; i++) {
+            recipes.add(createRecipe("テストレシピ" + i, numbered("材料", INGREDIENTS_PER_RECIPE),
+                    numbered("手順", STEPS_PER_RECIPE), numbered("タグ", TAGS_PER_RECIPE)));
+        }
+
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        recipeRepository.saveAll(recipes);
+        entityManager.flush();
+
+        long roundTrips = statistics.getPrepareStatementCount();
+
+        // シーケンス採番 + recipes + 材料・手順・タグの各テーブルに1回ずつ
+        assertThat(roundTrips).isLessThanOrEqualTo(6);
+        assertThat(recipes).allSatisfy(recipe -> assertThat(recipe.getId()).isNotNull());
+    }
+
+    private static List<String> numbered(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.recipe.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.recipe.app.model.Recipe;
+
+/**
+ * レシピの読み込みで発行されるSQLの数がレシピ件数に依存しないことを確認します
+ */
+class RecipeFetchStatementCountTest extends H2JpaTestSupport {
+
+    private static final int RECIPE_COUNT = 10;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            recipes.add(createRecipe("テストレシピ" + i, List.of("じゃがいも", "人参"),
+                    List.of("切る", "炒める", "煮る"), List.of("和食", "煮物", "和食")));
+        }
+        recipeRepository.saveAll(recipes);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = statistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByIngredientsNameInLoadsCollectionsInConstantQueries() {
+        // すべてのレシピが2つとも含む食材で検索しても重複しない
+        List<Recipe> recipes = recipeRepository.findByIngredientsNameIn(List.of("じゃがいも", "人参"));
+        recipes.forEach(this::touchCollections);
+
+        assertThat(recipes).hasSize(RECIPE_COUNT).doesNotHaveDuplicates();
+        // レシピ本体 + 材料・手順・タグのバッチ取得
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void findByTagsContainingReturnsDistinctRecipes() {
+        List<Recipe> recipes = recipeRepository.findByTagsContaining("和食");
+        recipes.forEach(this::touchCollections);
+
+        assertThat(recipes).hasSize(RECIPE_COUNT).doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void findByIdLoadsRecipeWithoutCartesianProduct() {
+        Long id = recipeRepository.findAll().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Recipe recipe = recipeRepository.findById(id).orElseThrow();
+        touchCollections(recipe);
+
+        // 材料は同時に取得し、手順・タグは1クエリずつ
+        assertThat(recipe.getIngredients()).hasSize(2);
+        assertThat(recipe.getInstructions()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    private void touchCollections(Recipe recipe) {
+        recipe.getIngredients().size();
+        recipe.getInstructions().size();
+        recipe.getTags().size();
+    }
+}
@@ -0,0 +1,75 @@
+package com.recipe.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+
+import com.recipe.app.model.SuggestRequestDailyCount;
+import com.recipe.app.model.SuggestRequestStat;
+
+/**
+ * 事前生成の対象が、累計ではなく集計期間内の受付回数で選ばれることを確認します
+ */
+class SuggestRequestDailyCountRepositoryTest extends H2JpaTestSupport {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+    private static final LocalDate SINCE = TODAY.minusDays(13);
+
+    @Autowired
+    private SuggestRequestStatRepository statRepository;
+
+    @Autowired
+    private SuggestRequestDailyCountRepository dailyCountRepository;
+
+    @Test
+    void findTopSinceRanksByRequestsWithinTheWindow() {
+        // 累計では最も多いが、期間内の受付は1回だけ
+        save("old", TODAY.minusDays(30), 100);
+        save("old", TODAY.minusDays(1), 1);
+        save("hot", TODAY.minusDays(1), 4);
+        save("hot", TODAY, 5);
+        save("warm", SINCE, 3);
+        save("warm", TODAY, 1);
+
+        assertThat(dailyCountRepository.findTopSince(SINCE, 3, Limit.of(10)))
+                .extracting(SuggestRequestDemand::getKeyHash, SuggestRequestDemand::getRequestCount)
+                .containsExactly(tuple("hot", 9L), tuple("warm", 4L));
+        assertThat(dailyCountRepository.findTopSince(SINCE, 3, Limit.of(1)))
+                .extracting(SuggestRequestDemand::getRequestKey)
+                .containsExactly("{\"key\":\"hot\"}");
+    }
+
+    @Test
+    void deleteByRequestDateBeforeRemovesOnlyExpiredDays() {
+        save("old", TODAY.minusDays(30), 100);
+        save("old", SINCE, 2);
+
+        assertThat(dailyCountRepository.deleteByRequestDateBefore(SINCE)).isEqualTo(1);
+        assertThat(dailyCountRepository.findAll())
+                .extracting(SuggestRequestDailyCount::getRequestDate)
+                .containsExactly(SINCE);
+    }
+
+    private void save(String keyHash, LocalDate date, long count) {
+        if (!statRepository.existsById(keyHash)) {
+            SuggestRequestStat stat = new SuggestRequestStat();
+            stat.setKeyHash(keyHash);
+            stat.setRequestKey("{\"key\":\"" + keyHash + "\"}");
+            stat.setLastRequestedAt(Instant.now());
+            statRepository.save(stat);
+        }
+        SuggestRequestDailyCount daily = new SuggestRequestDailyCount();
+        daily.setKeyHash(keyHash);
+        daily.setRequestDate(date);
+        daily.setRequestCount(count);
+        dailyCountRepository.save(daily);
+        SuggestRequestStat stat = statRepository.findById(keyHash).orElseThrow();
+        stat.setRequestCount(stat.getRequestCount() + count);
+    }
+}
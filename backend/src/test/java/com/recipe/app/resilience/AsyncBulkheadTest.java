@@ -0,0 +1,52 @@
+package com.recipe.app.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncBulkheadTest {
+
+    @Test
+    void queuesUpToLimitThenRejectsImmediately() {
+        AsyncBulkhead bulkhead = new AsyncBulkhead(1, 1, Duration.ofSeconds(10), Duration.ofSeconds(3), nanos -> { });
+        CompletableFuture<String> first = new CompletableFuture<>();
+
+        CompletableFuture<String> running = bulkhead.execute(() -> first);
+        CompletableFuture<String> queued = bulkhead.execute(() -> CompletableFuture.completedFuture("queued"));
+        CompletableFuture<String> rejected = bulkhead.execute(() -> CompletableFuture.completedFuture("rejected"));
+
+        assertThat(bulkhead.activeCount()).isEqualTo(1);
+        assertThat(bulkhead.queueDepth()).isEqualTo(1);
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BulkheadFullException.class);
+        assertThat(bulkhead.rejectedCount()).isEqualTo(1);
+
+        // 実行中の処理が終わると、待ち行列の呼び出しが開始される
+        first.complete("first");
+        assertThat(running.join()).isEqualTo("first");
+        assertThat(queued.join()).isEqualTo("queued");
+        assertThat(bulkhead.activeCount()).isZero();
+        assertThat(bulkhead.queueDepth()).isZero();
+    }
+
+    @Test
+    void rejectsQueuedCallAfterMaxQueueWait() {
+        AsyncBulkhead bulkhead = new AsyncBulkhead(1, 1, Duration.ofMillis(50), Duration.ofSeconds(3), nanos -> { });
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        bulkhead.execute(() -> blocker);
+
+        CompletableFuture<String> queued = bulkhead.execute(() -> CompletableFuture.completedFuture("late"));
+
+        assertThatThrownBy(queued::join).hasCauseInstanceOf(BulkheadFullException.class);
+        assertThat(bulkhead.queueDepth()).isZero();
+
+        blocker.complete("done");
+        assertThat(bulkhead.activeCount()).isZero();
+    }
+}
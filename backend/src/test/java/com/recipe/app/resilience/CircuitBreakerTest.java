@@ -0,0 +1,83 @@
+package com.recipe.app.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private final List<String> transitions = new ArrayList<>();
+
+    private CircuitBreaker breaker(Duration openDuration) {
+        return new CircuitBreaker("test", 4, 4, 50, Duration.ofSeconds(10), 100, openDuration, 2,
+                (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    private static CompletableFuture<String> fail() {
+        return CompletableFuture.failedFuture(new IllegalStateException("down"));
+    }
+
+    @Test
+    void opensOnFailureRateAndRejectsWithoutCalling() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+        breaker.execute(() -> CompletableFuture.completedFuture("ok"));
+        breaker.execute(() -> CompletableFuture.completedFuture("ok"));
+        breaker.execute(CircuitBreakerTest::fail);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // 4件中2件の失敗で失敗率50%に達する
+        breaker.execute(CircuitBreakerTest::fail);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> rejected = breaker.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        });
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(CallNotPermittedException.class);
+        assertThat(calls).hasValue(0);
+        assertThat(breaker.notPermittedCount()).isEqualTo(1);
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialCallsAndReopensOnTrialFailure() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(CircuitBreakerTest::fail);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // 半開きの状態では試行数を超える呼び出しを行わない
+        CompletableFuture<String> trial1 = new CompletableFuture<>();
+        CompletableFuture<String> trial2 = new CompletableFuture<>();
+        breaker.execute(() -> trial1);
+        breaker.execute(() -> trial2);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker.execute(() -> CompletableFuture.completedFuture("extra"))::get)
+                .hasCauseInstanceOf(CallNotPermittedException.class);
+
+        trial1.complete("ok");
+        trial2.complete("ok");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(CircuitBreakerTest::fail);
+        }
+        breaker.execute(CircuitBreakerTest::fail);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(transitions).containsExactly(
+                "CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED",
+                "CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN");
+    }
+}
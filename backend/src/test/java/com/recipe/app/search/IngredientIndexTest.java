@@ -0,0 +1,54 @@
+package com.recipe.app.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.recipe.app.model.Ingredient;
+import com.recipe.app.model.Recipe;
+import com.recipe.app.search.IngredientIndex.PantryMatch;
+
+class IngredientIndexTest {
+
+    private final IngredientIndex index = new IngredientIndex(List.of("塩", "醤油"));
+
+    @Test
+    void findMakeableIncludesRecipesThatNeedOnlyStaples() {
+        index.add(recipe(1L, "卵焼き", "卵", "塩"));
+        index.add(recipe(2L, "塩むすび", "塩"));
+        index.add(recipe(3L, "肉じゃが", "牛肉", "じゃがいも", "醤油"));
+
+        assertThat(index.findMakeable(List.of("卵"), 10))
+                .extracting(PantryMatch::recipeId)
+                .containsExactly(1L, 2L);
+        assertThat(index.findMakeable(List.of("トマト"), 10))
+                .extracting(PantryMatch::recipeId)
+                .containsExactly(2L);
+        // 一致する材料がないレシピは一致数順の検索には含めない
+        assertThat(index.findTopByOverlap(List.of("卵"), 10))
+                .extracting(PantryMatch::recipeId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void addIgnoresRecipesAlreadyIndexed() {
+        index.add(recipe(1L, "卵焼き", "卵"));
+        index.add(recipe(1L, "卵焼き", "卵"));
+
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private Recipe recipe(Long id, String title, String... ingredientNames) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle(title);
+        for (String name : ingredientNames) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setName(name);
+            recipe.getIngredients().add(ingredient);
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,57 @@
+package com.recipe.app.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.search.RecipeTextIndex.SearchHit;
+import com.recipe.app.search.RecipeTextIndex.SearchPage;
+
+class RecipeTextIndexTest {
+
+    @Test
+    void tokenizeProducesBigramsPerWordRun() {
+        assertThat(RecipeTextIndex.tokenize("肉じゃが、Ａ")).containsExactly("肉じ", "じゃ", "ゃが", "a");
+    }
+
+    @Test
+    void searchRanksTitleMatchesFirstAndPaginates() {
+        RecipeTextIndex index = new RecipeTextIndex();
+        index.add(recipe(1L, "鶏肉の照り焼き", "甘辛いたれ", List.of("肉じゃがの残りを添える")));
+        index.add(recipe(2L, "肉じゃが", "定番のおかず", List.of("じゃがいもを煮る")));
+        index.add(recipe(3L, "野菜炒め", "シャキシャキ", List.of("強火で炒める")));
+
+        SearchPage first = index.search("肉じゃが", 0, 1);
+        assertThat(first.total()).isEqualTo(2);
+        assertThat(first.hits()).extracting(SearchHit::recipeId).containsExactly(2L);
+
+        SearchPage second = index.search("肉じゃが", 1, 1);
+        assertThat(second.hits()).extracting(SearchHit::recipeId).containsExactly(1L);
+
+        assertThat(index.search("ハンバーグ", 0, 10).hits()).isEmpty();
+    }
+
+    @Test
+    void searchBeyondLastPageReturnsNoHitsForLargePageNumbers() {
+        RecipeTextIndex index = new RecipeTextIndex();
+        index.add(recipe(1L, "肉じゃが", "定番のおかず", List.of("じゃがいもを煮る")));
+
+        // page * size がintの範囲を超えても例外にしない
+        SearchPage page = index.search("肉じゃが", 30_000_000, 100);
+        assertThat(page.hits()).isEmpty();
+        assertThat(page.total()).isEqualTo(1);
+        assertThat(index.search("肉じゃが", Integer.MAX_VALUE, 100).hits()).isEmpty();
+    }
+
+    private Recipe recipe(Long id, String title, String description, List<String> instructions) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle(title);
+        recipe.setDescription(description);
+        recipe.setInstructions(instructions);
+        return recipe;
+    }
+}
@@ -0,0 +1,57 @@
+package com.recipe.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class JsonObjectStreamSplitterTest {
+
+    private final List<String> objects = new ArrayList<>();
+    private final JsonObjectStreamSplitter splitter = new JsonObjectStreamSplitter(objects::add);
+
+    @Test
+    void splitsArrayElementsFedOneCharacterAtATime() {
+        String text = "以下のとおり作成しました。\n[\n  {\"title\": \"親子丼\"},\n  {\"title\": \"味噌汁\"}\n]\n以上です。";
+
+        for (int i = 0; i < text.length(); i++) {
+            splitter.feed(text.substring(i, i + 1));
+        }
+
+        assertThat(objects).containsExactly("{\"title\": \"親子丼\"}", "{\"title\": \"味噌汁\"}");
+    }
+
+    @Test
+    void ignoresBracketsAndEscapedQuotesInsideStrings() {
+        String recipe = "{\"title\": \"\\\"特製\\\"カレー {辛口} [大盛]\", \"path\": \"C:\\\\\", "
+                + "\"steps\": [\"切る\", \"煮る\"], \"ingredients\": [{\"name\": \"玉ねぎ\"}]}";
+
+        splitter.feed("[" + recipe.substring(0, 20));
+        splitter.feed(recipe.substring(20) + ", {\"title\": \"サラダ\"}]");
+
+        assertThat(objects).containsExactly(recipe, "{\"title\": \"サラダ\"}");
+    }
+
+    @Test
+    void skipsBracketsInProseBeforeTheArray() {
+        splitter.feed("[参考] 3つのレシピです（[1]〜[3]）。\n[{\"title\": \"親子丼\"}]");
+
+        assertThat(objects).containsExactly("{\"title\": \"親子丼\"}");
+    }
+
+    @Test
+    void acceptsSingleObjectAndStopsAfterIt() {
+        splitter.feed("{\"title\": \"親子丼\", \"steps\": [\"煮る\"]} 補足: {\"title\": \"無視\"}");
+
+        assertThat(objects).containsExactly("{\"title\": \"親子丼\", \"steps\": [\"煮る\"]}");
+    }
+
+    @Test
+    void stopsAfterTheArrayCloses() {
+        splitter.feed("[{\"title\": \"親子丼\"}]\n[{\"title\": \"無視\"}]");
+
+        assertThat(objects).containsExactly("{\"title\": \"親子丼\"}");
+    }
+}
@@ -0,0 +1,182 @@
+package com.recipe.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.recipe.app.model.Recipe;
+import com.recipe.app.repository.RecipeSummary;
+import com.recipe.app.service.RecipeBrowseService.BrowsePage;
+
+class RecipeBrowseServiceTest {
+
+    private final InMemoryRecipeStore store = new InMemoryRecipeStore();
+    private final RecipeBrowseService service = new RecipeBrowseService(store);
+
+    @Test
+    void browseByDifficultyWalksAllPagesInCookingTimeOrder() {
+        store.add(1L, 30, Recipe.Difficulty.EASY, "和食");
+        store.add(2L, 10, Recipe.Difficulty.EASY, "和食");
+        store.add(3L, 10, Recipe.Difficulty.EASY, "和食");
+        store.add(4L, 20, Recipe.Difficulty.EASY, "和食");
+        store.add(5L, 15, Recipe.Difficulty.HARD, "和食");
+        store.add(6L, 90, Recipe.Difficulty.EASY, "和食");
+
+        List<Long> ids = new ArrayList<>();
+        List<String> cursors = new ArrayList<>();
+        String cursor = null;
+        do {
+            BrowsePage page = service.browseByDifficulty(Recipe.Difficulty.EASY, 60, cursor, 2);
+            page.items().forEach(item -> ids.add(item.getId()));
+            cursor = page.nextCursor();
+            cursors.add(cursor);
+        } while (cursor != null);
+
+        // 同じ調理時間の中ではID順
+        assertThat(ids).containsExactly(2L, 3L, 4L, 1L);
+        // 件数がページの大きさの倍数でも、最後のページの後に空のページを返さない
+        assertThat(cursors).hasSize(2).endsWith((String) null);
+    }
+
+    @Test
+    void lastPageHasNoCursorWhenFewerRowsThanSize() {
+        store.add(1L, 10, Recipe.Difficulty.EASY, "和食");
+
+        BrowsePage page = service.browseByDifficulty(Recipe.Difficulty.EASY, 60, null, 2);
+
+        assertThat(page.items()).extracting(RecipeSummary::getId).containsExactly(1L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void browseByTagResumesAfterCursor() {
+        for (long id = 1; id <= 5; id++) {
+            store.add(id, 10, Recipe.Difficulty.EASY, id % 2 == 0 ? "洋食" : "和食");
+        }
+
+        BrowsePage first = service.browseByTag("和食", null, 2);
+        BrowsePage second = service.browseByTag("和食", first.nextCursor(), 2);
+
+        assertThat(first.items()).extracting(RecipeSummary::getId).containsExactly(1L, 3L);
+        assertThat(second.items()).extracting(RecipeSummary::getId).containsExactly(5L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> service.browseByDifficulty(Recipe.Difficulty.EASY, 60, "%%%", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        // 一覧の種類が異なるカーソル（値の数が合わない）
+        assertThatThrownBy(() -> service.browseByDifficulty(Recipe.Difficulty.EASY, 60, encode("3"), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.browseByTag("和食", encode("abc"), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Summary(Long id, Integer cookingTime, Recipe.Difficulty difficulty, String tag)
+            implements RecipeSummary {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitle() {
+            return "レシピ" + id;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public Integer getCookingTime() {
+            return cookingTime;
+        }
+
+        @Override
+        public Recipe.Difficulty getDifficulty() {
+            return difficulty;
+        }
+
+        @Override
+        public Integer getServingSize() {
+            return 2;
+        }
+    }
+
+    /**
+     * キーセットページングの条件をリポジトリのクエリと同じく評価する保存先
+     */
+    private static final class InMemoryRecipeStore implements RecipeStore {
+
+        private final List<Summary> rows = new ArrayList<>();
+
+        void add(long id, int cookingTime, Recipe.Difficulty difficulty, String tag) {
+            rows.add(new Summary(id, cookingTime, difficulty, tag));
+        }
+
+        @Override
+        public List<RecipeSummary> findSummariesByDifficulty(Recipe.Difficulty difficulty, int maxCookingTime,
+                int afterCookingTime, long afterId, int limit) {
+            return rows.stream()
+                    .filter(row -> row.difficulty() == difficulty && row.cookingTime() <= maxCookingTime)
+                    .filter(row -> row.cookingTime() > afterCookingTime
+                            || (row.cookingTime() == afterCookingTime && row.id() > afterId))
+                    .sorted(Comparator.comparing(Summary::cookingTime).thenComparing(Summary::id))
+                    .limit(limit)
+                    .map(RecipeSummary.class::cast)
+                    .toList();
+        }
+
+        @Override
+        public List<RecipeSummary> findSummariesByTag(String tag, long afterId, int limit) {
+            return rows.stream()
+                    .filter(row -> row.tag().equals(tag) && row.id() > afterId)
+                    .sorted(Comparator.comparing(Summary::id))
+                    .limit(limit)
+                    .map(RecipeSummary.class::cast)
+                    .toList();
+        }
+
+        @Override
+        public List<RecipeSummary> findSummariesByIngredient(String ingredient, long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Recipe> findById(long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Recipe> findByContentHashIn(Collection<String> contentHashes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Recipe> findByIdGreaterThanOrderByIdAsc(long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void insertAll(List<Recipe> recipes) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.recipe.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.recipe.app.model.Recipe;
+
+class RecipeJsonParserTest {
+
+    private static final String RECIPE = "{\"title\":\"肉じゃが\",\"description\":\"定番の煮物\","
+            + "\"ingredients\":[{\"name\":\"じゃがいも\",\"quantity\":3,\"unit\":\"個\",\"note\":\"一口大\"},"
+            + "{\"name\":\"牛肉\",\"quantity\":\"200\",\"unit\":null}],"
+            + "\"instructions\":[\"1. じゃがいもを切る\",\"1.1. 水にさらす\",\"Step 2: simmer\",\"  煮る  \"],"
+            + "\"cookingTime\":\"30\",\"difficulty\":\"EASY\",\"servingSize\":2,\"tags\":[\"和食\"],"
+            + "\"nutritionInfo\":{\"calories\":450,\"protein\":null,\"extra\":{\"x\":[1]}},\"unknown\":[{}]}";
+
+    private final RecipeJsonParser parser = new RecipeJsonParser();
+
+    @Test
+    void readGeneratedTextJoinsTextBlocksAndReadsUsage() throws IOException {
+        String envelope = "{\"id\":\"msg\",\"content\":[{\"type\":\"text\",\"text\":\"前置き\"},"
+                + "{\"type\":\"tool_use\",\"input\":{\"text\":\"x\"}},{\"text\":\"[]\",\"type\":\"text\"}],"
+                + "\"stop_reason\":\"max_tokens\",\"usage\":{\"input_tokens\":10}}";
+
+        GenerationResult result = parser.readGeneratedText(envelope.getBytes(StandardCharsets.UTF_8));
+        assertThat(result.text()).isEqualTo("前置き[]");
+        assertThat(result.inputTokens()).isEqualTo(10);
+        assertThat(result.outputTokens()).isZero();
+        assertThat(result.stopReason()).isEqualTo(GenerationResult.STOP_MAX_TOKENS);
+    }
+
+    @Test
+    void readGeneratedTextRejectsEnvelopeWithoutText() {
+        byte[] noContent = "{\"type\":\"message\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] truncated = "{\"content\":[{\"type\":\"text\",\"text\":\"[".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> parser.readGeneratedText(noContent)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parser.readGeneratedText(truncated)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void parseRecipesIgnoresSurroundingProseAndNormalizesFields() throws IOException {
+        List<Recipe> recipes = parser.parseRecipes("以下がレシピです。\n[" + RECIPE + "," + RECIPE + "]\n以上です [注]");
+
+        assertThat(recipes).hasSize(2);
+        Recipe recipe = recipes.get(0);
+        assertThat(recipe.getTitle()).isEqualTo("肉じゃが");
+        assertThat(recipe.getIngredients()).extracting("quantity").containsExactly("3", "200");
+        assertThat(recipe.getIngredients()).extracting("unit").containsExactly("個", "");
+        assertThat(recipe.getInstructions()).containsExactly("じゃがいもを切る", "水にさらす", "Simmer", "煮る");
+        assertThat(recipe.getCookingTime()).isEqualTo(30);
+        assertThat(recipe.getDifficulty()).isEqualTo(Recipe.Difficulty.EASY);
+        assertThat(recipe.getNutritionInfo().getCalories()).isEqualTo(450);
+        assertThat(recipe.getNutritionInfo().getProtein()).isNull();
+    }
+
+    @Test
+    void parseRecipesAcceptsSingleObject() throws IOException {
+        assertThat(parser.parseRecipes("```json\n" + RECIPE + "\n```")).hasSize(1);
+    }
+
+    @Test
+    void parseRecipesSetsContentHashIgnoringNotationDifferences() throws IOException {
+        // 材料の順序・全角数字・句読点・空白・説明文・タグだけが異なるレシピ
+        String variant = "{\"title\":\"肉じゃが。\",\"description\":\"ほっとする味\","
+                + "\"ingredients\":[{\"name\":\"牛肉\",\"quantity\":\"２００\"},"
+                + "{\"name\":\" じゃがいも \",\"quantity\":\"3\",\"unit\":\"個\"}],"
+                + "\"instructions\":[\"じゃがいもを、切る\",\"水にさらす。\",\"simmer\",\"煮る\"],"
+                + "\"cookingTime\":25,\"difficulty\":\"MEDIUM\",\"servingSize\":4,\"tags\":[\"定番\"]}";
+        String moreBeef = RECIPE.replace("\"quantity\":\"200\"", "\"quantity\":\"300\"");
+
+        String contentHash = parser.parseRecipes(RECIPE).get(0).getContentHash();
+        assertThat(contentHash).hasSize(64);
+        assertThat(parser.parseRecipes(variant).get(0).getContentHash()).isEqualTo(contentHash);
+        assertThat(parser.parseRecipes(moreBeef).get(0).getContentHash()).isNotEqualTo(contentHash);
+    }
+
+    @Test
+    void parseRecipesRejectsMalformedOutput() {
+        String missingTags = RECIPE.replace(",\"tags\":[\"和食\"]", "");
+        String unknownDifficulty = RECIPE.replace("\"EASY\"", "\"VERY_EASY\"");
+        String objectTitle = RECIPE.replace("\"肉じゃが\"", "{\"ja\":\"肉じゃが\"}");
+
+        assertThatThrownBy(() -> parser.parseRecipes("レシピを作成できませんでした")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parser.parseRecipes("[" + RECIPE.substring(0, 80))).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parser.parseRecipes("[\"肉じゃが\"]")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parser.parseRecipes(missingTags)).hasMessageContaining("tags");
+        assertThatThrownBy(() -> parser.parseRecipes(unknownDifficulty)).hasMessageContaining("VERY_EASY");
+        assertThatThrownBy(() -> parser.parseRecipes(objectTitle)).isInstanceOf(IOException.class);
+    }
+}
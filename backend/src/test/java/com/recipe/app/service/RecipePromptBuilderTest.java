@@ -0,0 +1,42 @@
+package com.recipe.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.recipe.app.service.RecipePromptBuilder.RecipePrompt;
+
+class RecipePromptBuilderTest {
+
+    private final RecipePromptBuilder compact = new RecipePromptBuilder(true, 8, 15, 300, 40, 35, 4000);
+    private final RecipePromptBuilder verbose = new RecipePromptBuilder(false, 8, 15, 300, 40, 35, 4000);
+
+    @Test
+    void compactMaxTokensCoversIngredientsAndSteps() {
+        RecipePrompt prompt = compact.build(List.of("鶏肉", "じゃがいも"), Map.of("recipeCount", 3));
+
+        // 3 × (300 + 15材料 × 35 + 8手順 × 40) + 50
+        assertThat(prompt.maxTokens()).isEqualTo(3485);
+        assertThat(prompt.system()).contains("材料は15個以内", "手順は8つ以内");
+    }
+
+    @Test
+    void compactMaxTokensIsCappedByConfiguredLimit() {
+        assertThat(compact.build(List.of("卵"), Map.of("recipeCount", 1)).maxTokens()).isEqualTo(1195);
+        assertThat(compact.build(List.of("卵"), Map.of("recipeCount", 5)).maxTokens()).isEqualTo(4000);
+    }
+
+    @Test
+    void verbosePromptAcceptsMissingOrNullDifficulty() {
+        Map<String, Object> preferences = new HashMap<>();
+        preferences.put("difficulty", null);
+
+        assertThat(verbose.build(List.of("卵"), preferences).user()).contains("難易度: EASY");
+        assertThat(verbose.build(List.of("卵"), Map.of("difficulty", 2)).user()).contains("難易度: EASY");
+        assertThat(verbose.build(List.of("卵"), Map.of("difficulty", "HARD")).user()).contains("難易度: HARD");
+    }
+}
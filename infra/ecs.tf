@@ -125,11 +125,11 @@ resource "aws_ecs_task_definition" "backend" {
         }
       ]
 
-      # 環境変数
-      environment = [
+      # 環境変数（管理用エンドポイントのパスワードは指定した場合のみ渡し、未指定時は起動ごとのランダム値になる）
+      environment = concat([
         {
           name  = "SPRING_PROFILES_ACTIVE"
-          value = "docker" # コンテナ環境用のプロファイル
+          value = "docker,prod" # コンテナ環境用＋本番の起動設定（遅延初期化など）
         },
         {
           name  = "SERVER_PORT"
@@ -167,7 +167,12 @@ resource "aws_ecs_task_definition" "backend" {
           name  = "APP_CORS_ALLOWED_ORIGINS"
           value = "http://${module.alb.lb_dns_name}"
         }
-      ]
+        ], var.actuator_password == "" ? [] : [
+        {
+          name  = "ACTUATOR_PASSWORD"
+          value = var.actuator_password
+        }
+      ])
 
       # ヘルスチェック - シンプルな実行チェック
       healthCheck = {
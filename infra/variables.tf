@@ -133,6 +133,13 @@ variable "db_password" {
   sensitive   = true
 }
 
+variable "actuator_password" {
+  description = "管理用エンドポイント（/actuator/prometheus、/actuator/demand など）のBasic認証パスワード（ユーザー名は actuator）"
+  type        = string
+  default     = "" # 未指定の場合は起動ごとのランダム値になり、管理用エンドポイントは参照できない
+  sensitive   = true
+}
+
 # Amazon Bedrock設定
 variable "bedrock_model_id" {
   description = "Amazon Bedrockで使用するモデルID"